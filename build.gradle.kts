@@ -2,6 +2,7 @@ plugins {
     java
     id("org.springframework.boot") version "3.5.5"
     id("io.spring.dependency-management") version "1.1.7"
+    id("me.champeau.jmh") version "0.7.3"
 }
 
 group = "me.artm2000"
@@ -24,19 +25,60 @@ repositories {
     mavenCentral()
 }
 
+// http load test of the running app, against h2 and a redis-server started from the embedded-redis jar (src/loadTest)
+val loadTest by sourceSets.creating {
+    compileClasspath += sourceSets.main.get().output
+    runtimeClasspath += sourceSets.main.get().output
+}
+
+configurations[loadTest.implementationConfigurationName].extendsFrom(configurations.implementation.get())
+configurations[loadTest.runtimeOnlyConfigurationName].extendsFrom(configurations.runtimeOnly.get())
+
 dependencies {
     implementation("org.springframework.boot:spring-boot-starter-actuator:3.5.5")
     implementation("org.springframework.boot:spring-boot-starter-data-jpa:3.5.5")
     implementation("org.springframework.boot:spring-boot-starter-jdbc:3.5.5")
     implementation("org.springframework.boot:spring-boot-starter-web:3.5.5")
     implementation("org.redisson:redisson-hibernate-6:3.50.0")
+    implementation("com.github.ben-manes.caffeine:caffeine:3.2.2")
+    implementation("org.hibernate.orm:hibernate-micrometer")
     compileOnly("org.projectlombok:lombok:1.18.38")
-    runtimeOnly("com.mysql:mysql-connector-j:8.4.0")
+    // 9.x guards connections with locks instead of synchronized, a query no longer pins its virtual thread
+    runtimeOnly("com.mysql:mysql-connector-j:9.4.0")
+    runtimeOnly("io.micrometer:micrometer-registry-prometheus")
     annotationProcessor("org.projectlombok:lombok:1.18.38")
     testImplementation("org.springframework.boot:spring-boot-starter-test:3.5.5")
     testRuntimeOnly("org.junit.platform:junit-platform-launcher:1.12.2")
+    jmhRuntimeOnly("com.h2database:h2")
+    // the benchmarks run the production region factory against a local redis, as the load test does
+    jmhImplementation("com.github.codemonstur:embedded-redis:1.4.3")
+    "loadTestImplementation"("com.github.codemonstur:embedded-redis:1.4.3")
+    "loadTestImplementation"("org.hdrhistogram:HdrHistogram:2.2.2")
+    "loadTestRuntimeOnly"("com.h2database:h2")
 }
 
 tasks.withType<Test> {
     useJUnitPlatform()
 }
+
+// ./gradlew loadTest -Ploadtest.clients=64 -Ploadtest.duration=60s, see LoadTestSettings for all of them
+tasks.register<JavaExec>("loadTest") {
+    group = "verification"
+    description = "Runs an HTTP load test of the notes API and writes build/reports/loadtest/report.json"
+    classpath = loadTest.runtimeClasspath
+    mainClass = "me.artm2000.hibernatecache.loadtest.LoadTest"
+    systemProperty("loadtest.report", layout.buildDirectory.file("reports/loadtest/report.json").get().asFile.path)
+    systemProperties(providers.gradlePropertiesPrefixedBy("loadtest.").get())
+}
+
+jmh {
+    jmhVersion = "1.37"
+    fork = 1
+    warmupIterations = 3
+    iterations = 5
+    resultFormat = "JSON"
+    // allocation rate and GC count per operation next to the timings
+    profilers = listOf("gc")
+    // ./gradlew jmh -Pbenchmarks=QueryCacheBenchmark runs the matching benchmarks only
+    (findProperty("benchmarks") as String?)?.let { includes = listOf(it) }
+}
@@ -0,0 +1,125 @@
+package me.artm2000.hibernatecache.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import me.artm2000.hibernatecache.common.CustomizeRegionFactory;
+import me.artm2000.hibernatecache.database.entity.Note;
+import me.artm2000.hibernatecache.database.entity.NoteContent;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.ServerSocket;
+import java.util.Properties;
+
+/**
+ * Session factories of the benchmarks: notes in an in-memory H2 database, cached by {@link CustomizeRegionFactory}
+ * in a Redis started for the fork, the {@code redis-server} the embedded-redis jar ships as in the load test. The
+ * cache settings are the {@code hibernate.cache.*} ones of {@code application.properties}, so the regions go through
+ * the same near cache, codec, circuit breaker and meters as in the application. The benchmarks of the persistence
+ * context get a factory without the cache. None of the notes are archived, so a query of the notes with
+ * {@code archived = false} returns all of them.
+ */
+final class BenchmarkSessionFactory {
+    private static final String JPA_PROPERTIES_PREFIX = "spring.jpa.properties.";
+
+    private static int redisPort;
+
+    private BenchmarkSessionFactory() {
+    }
+
+    static SessionFactory create(String database, int notes) {
+        return create(database, notes, true);
+    }
+
+    static SessionFactory create(String database, int notes, boolean secondLevelCache) {
+        Configuration configuration = new Configuration()
+            .addAnnotatedClass(Note.class)
+            .addAnnotatedClass(NoteContent.class)
+            .setProperty("hibernate.connection.url", "jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1")
+            .setProperty("hibernate.connection.username", "sa")
+            .setProperty("hibernate.hbm2ddl.auto", "create-drop")
+            .setProperty("hibernate.jdbc.batch_size", "500")
+            .setProperty("hibernate.cache.use_second_level_cache", String.valueOf(secondLevelCache));
+        if (secondLevelCache) {
+            configuration
+                .addProperties(applicationCacheProperties())
+                // the region factory reads its redis address from the hibernate properties
+                .setProperty("spring.data.redis.host", "127.0.0.1")
+                .setProperty("spring.data.redis.port", String.valueOf(redisPort()));
+            configuration.getProperties().put(CustomizeRegionFactory.METER_REGISTRY, new SimpleMeterRegistry());
+        }
+        SessionFactory sessionFactory = configuration.buildSessionFactory();
+
+        sessionFactory.inTransaction(session -> {
+            for (int i = 0; i < notes; i++) {
+                Note note = new Note();
+                note.setTitle("Benchmark note " + i);
+                note.setContent("x".repeat(512));
+                session.persist(note);
+                if (i % 500 == 499) {
+                    session.flush();
+                    session.clear();
+                }
+            }
+        });
+        // the inserts put every note into entity.notes, and an earlier trial of the fork left its entries in redis,
+        // start from an empty cache
+        sessionFactory.getCache().evictAllRegions();
+        return sessionFactory;
+    }
+
+    private static Properties applicationCacheProperties() {
+        Properties application = new Properties();
+        try (InputStream in = BenchmarkSessionFactory.class.getResourceAsStream("/application.properties")) {
+            application.load(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        Properties properties = new Properties();
+        for (String name : application.stringPropertyNames()) {
+            if (name.startsWith(JPA_PROPERTIES_PREFIX + "hibernate.cache.")) {
+                properties.setProperty(name.substring(JPA_PROPERTIES_PREFIX.length()), application.getProperty(name));
+            }
+        }
+        return properties;
+    }
+
+    // one redis per fork, stopped with it
+    private static synchronized int redisPort() {
+        if (redisPort == 0) {
+            try {
+                int port = freePort();
+                RedisServer redis = RedisServer.newRedisServer()
+                    .bind("127.0.0.1")
+                    .port(port)
+                    // nothing to keep once the fork is over
+                    .setting("save \"\"")
+                    .setting("appendonly no")
+                    .onShutdownForceStop(true)
+                    .build();
+                redis.start();
+                Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                    try {
+                        redis.stop();
+                    } catch (IOException ignored) {
+                        // the fork is exiting, onShutdownForceStop kills the process anyway
+                    }
+                }));
+                redisPort = port;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return redisPort;
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package me.artm2000.hibernatecache.benchmark;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import me.artm2000.hibernatecache.common.cache.HibernateKryoCodec;
+import me.artm2000.hibernatecache.database.entity.Note;
+import org.hibernate.SessionFactory;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.redisson.client.codec.Codec;
+import org.redisson.codec.Kryo5Codec;
+
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encoded size and ser/deser time of the cached entries of a {@code Note} with Redisson's default codec and with
+ * {@link HibernateKryoCodec}. A note read by id moves two entries, the {@code entity.notes} one without the body and
+ * the {@code entity.note_contents} one with it, each a read-write {@code Item} wrapping the state disassembled by
+ * Hibernate's persister. Every invocation encodes or decodes both. The encoded size of each is printed once per trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CacheEntryCodecBenchmark {
+    @Param({"kryo5-default", "hibernate-kryo"})
+    public String codecName;
+
+    @Param({"64", "2048"})
+    public int contentLength;
+
+    private Codec codec;
+    private Object[] entries;
+    private byte[][] encoded;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        codec = "hibernate-kryo".equals(codecName) ? new HibernateKryoCodec() : new Kryo5Codec();
+        SessionFactory sessionFactory = BenchmarkSessionFactory.create("codec-benchmark", 0);
+        try {
+            entries = cachedNoteEntries(sessionFactory, "Benchmark note", "x".repeat(contentLength));
+        } finally {
+            sessionFactory.close();
+        }
+
+        encoded = new byte[entries.length][];
+        for (int i = 0; i < entries.length; i++) {
+            ByteBuf buf = codec.getValueEncoder().encode(entries[i]);
+            try {
+                encoded[i] = new byte[buf.readableBytes()];
+                buf.readBytes(encoded[i]);
+            } finally {
+                buf.release();
+            }
+        }
+        System.out.printf("%n%s, content %d chars: note %d bytes, content %d bytes encoded%n",
+            codecName, contentLength, encoded[0].length, encoded[1].length);
+    }
+
+    @Benchmark
+    public int encode() throws IOException {
+        int bytes = 0;
+        for (Object entry : entries) {
+            ByteBuf buf = codec.getValueEncoder().encode(entry);
+            try {
+                bytes += buf.readableBytes();
+            } finally {
+                buf.release();
+            }
+        }
+        return bytes;
+    }
+
+    @Benchmark
+    public void decode(Blackhole blackhole) throws IOException {
+        for (byte[] entry : encoded) {
+            blackhole.consume(codec.getValueDecoder().decode(Unpooled.wrappedBuffer(entry), new org.redisson.client.handler.State()));
+        }
+    }
+
+    /**
+     * Builds what the READ_WRITE regions store for a note as a load caches it: the {@code entity.notes} entry and
+     * the {@code entity.note_contents} one, from the persisters of a note persisted in a rolled back transaction.
+     */
+    static Object[] cachedNoteEntries(SessionFactory sessionFactory, String title, String content) throws Exception {
+        try (SessionImplementor session = sessionFactory.openSession().unwrap(SessionImplementor.class)) {
+            session.beginTransaction();
+            Note note = new Note();
+            note.setTitle(title);
+            note.setContent(content);
+            session.persist(note);
+            session.flush();
+            Object[] entries = {cachedEntry(session, note), cachedEntry(session, note.getNoteContent())};
+            session.getTransaction().rollback();
+            return entries;
+        }
+    }
+
+    private static Object cachedEntry(SessionImplementor session, Object entity) throws Exception {
+        EntityPersister persister = session.getFactory().getMappingMetamodel().getEntityDescriptor(entity.getClass());
+        Object version = persister.getVersion(entity);
+        Object state = persister.getCacheEntryStructure().structure(
+            persister.buildCacheEntry(entity, persister.getValues(entity), version, session));
+
+        Constructor<?> item = Class.forName("org.hibernate.cache.spi.support.AbstractReadWriteAccess$Item")
+            .getDeclaredConstructor(Object.class, Object.class, long.class);
+        item.setAccessible(true);
+        return item.newInstance(state, version, System.currentTimeMillis() << 12);
+    }
+}
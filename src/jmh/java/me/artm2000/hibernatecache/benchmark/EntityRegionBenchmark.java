@@ -0,0 +1,66 @@
+package me.artm2000.hibernatecache.benchmark;
+
+import me.artm2000.hibernatecache.database.entity.Note;
+import org.hibernate.CacheMode;
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the lookup behind {@code getNoteById}, a read-only session finding one note, when the note is a hit in
+ * {@code entity.notes} against loading it from the database with the cache bypassed. Consecutive invocations
+ * look up different notes, so the persistence context never has the note already.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class EntityRegionBenchmark {
+    @Param({"cache", "database"})
+    public String source;
+
+    @Param({"1000"})
+    public int notes;
+
+    private SessionFactory sessionFactory;
+    private CacheMode cacheMode;
+    private Long[] ids;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        sessionFactory = BenchmarkSessionFactory.create("entity-region-benchmark", notes);
+        cacheMode = "cache".equals(source) ? CacheMode.NORMAL : CacheMode.IGNORE;
+        ids = sessionFactory.fromTransaction(session -> session
+            .createSelectionQuery("select n.id from Note n order by n.id", Long.class)
+            .getResultList()
+            .toArray(Long[]::new));
+        for (Long id : ids) {
+            getNoteById(id);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    public Note getNoteById() {
+        return getNoteById(ids[next++ % ids.length]);
+    }
+
+    private Note getNoteById(Long id) {
+        try (Session session = sessionFactory.openSession()) {
+            session.setDefaultReadOnly(true);
+            session.setHibernateFlushMode(FlushMode.MANUAL);
+            session.beginTransaction();
+            // find() reads the cache by the JPA retrieve mode, whatever the session's cache mode is
+            Note note = session.byId(Note.class).with(cacheMode).load(id);
+            session.getTransaction().commit();
+            return note;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package me.artm2000.hibernatecache.benchmark;
+
+import me.artm2000.hibernatecache.database.entity.Note;
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.spi.access.EntityDataAccess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of {@code putFromLoad} on the READ_WRITE {@code entity.notes}, what every note loaded from the database
+ * pays to be cached. {@code absent} evicts the entry first, so the put goes through: a lock, a get, the encoding and
+ * the write. {@code present} finds the same version already cached and skips the write, which is what a load
+ * racing with another one for the same note costs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PutFromLoadBenchmark {
+    @Param({"absent", "present"})
+    public String entry;
+
+    @Param({"1000"})
+    public int notes;
+
+    private SessionFactory sessionFactory;
+    private SessionImplementor session;
+    private EntityDataAccess cacheAccess;
+    private Object[] keys;
+    private Object[] entries;
+    private Object[] versions;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        sessionFactory = BenchmarkSessionFactory.create("put-from-load-benchmark", notes);
+        SessionFactoryImplementor factory = sessionFactory.unwrap(SessionFactoryImplementor.class);
+        EntityPersister persister = factory.getMappingMetamodel().getEntityDescriptor(Note.class);
+        cacheAccess = persister.getCacheAccessStrategy();
+
+        // the session stays open for the trial, putFromLoad only reads its caching timestamp
+        session = sessionFactory.openSession().unwrap(SessionImplementor.class);
+        session.beginTransaction();
+        List<Note> loaded = session.createSelectionQuery("from Note n order by n.id", Note.class).getResultList();
+        keys = new Object[loaded.size()];
+        entries = new Object[loaded.size()];
+        versions = new Object[loaded.size()];
+        for (int i = 0; i < loaded.size(); i++) {
+            Note note = loaded.get(i);
+            versions[i] = note.getVersion();
+            keys[i] = cacheAccess.generateCacheKey(note.getId(), persister, factory, null);
+            entries[i] = persister.getCacheEntryStructure().structure(
+                persister.buildCacheEntry(note, persister.getValues(note), versions[i], session));
+            cacheAccess.putFromLoad(session, keys[i], entries[i], versions[i]);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        session.getTransaction().rollback();
+        session.close();
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    public boolean putFromLoad() {
+        int i = next++ % keys.length;
+        if ("absent".equals(entry)) {
+            cacheAccess.evict(keys[i]);
+        }
+        return cacheAccess.putFromLoad(session, keys[i], entries[i], versions[i]);
+    }
+}
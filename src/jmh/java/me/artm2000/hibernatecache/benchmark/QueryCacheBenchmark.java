@@ -0,0 +1,83 @@
+package me.artm2000.hibernatecache.benchmark;
+
+import me.artm2000.hibernatecache.common.cache.EntityCacheBatchLoader;
+import me.artm2000.hibernatecache.database.entity.Note;
+import me.artm2000.hibernatecache.database.entity.NoteContent;
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of a query cache hit in {@code query.findAllNotesByArchived} by the size of the result. {@code entities}
+ * selects the notes themselves with {@code from Note n where n.archived = :archived}, the query cache holding the ids
+ * and Hibernate resolving each one from {@code entity.notes}. {@code idsThenEntities} is what
+ * {@code getAllNonArchivedNotes} does, the cached {@code findAllIdsByArchived} followed by
+ * {@link EntityCacheBatchLoader} for the contents and then the notes. All regions are warm, no invocation goes to
+ * the database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class QueryCacheBenchmark {
+    private static final String REGION = "query.findAllNotesByArchived";
+
+    @Param({"10", "1000", "100000"})
+    public int rows;
+
+    private SessionFactory sessionFactory;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        sessionFactory = BenchmarkSessionFactory.create("query-cache-benchmark", rows);
+        entities();
+        idsThenEntities();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    public int entities() {
+        try (Session session = openReadOnlySession()) {
+            session.beginTransaction();
+            List<Note> notes = session.createSelectionQuery("from Note n where n.archived = :archived", Note.class)
+                .setParameter("archived", false)
+                .setCacheable(true)
+                .setCacheRegion(REGION)
+                .getResultList();
+            session.getTransaction().commit();
+            return notes.size();
+        }
+    }
+
+    @Benchmark
+    public int idsThenEntities() {
+        try (Session session = openReadOnlySession()) {
+            session.beginTransaction();
+            List<Long> ids = session.createSelectionQuery(
+                    "select n.id from Note n where n.archived = :archived order by n.id", Long.class)
+                .setParameter("archived", false)
+                .setCacheable(true)
+                .setCacheRegion(REGION)
+                .getResultList();
+            EntityCacheBatchLoader loader = new EntityCacheBatchLoader(session);
+            loader.findAllById(NoteContent.class, ids);
+            List<Note> notes = loader.findAllById(Note.class, ids);
+            session.getTransaction().commit();
+            return notes.size();
+        }
+    }
+
+    private Session openReadOnlySession() {
+        Session session = sessionFactory.openSession();
+        session.setDefaultReadOnly(true);
+        session.setHibernateFlushMode(FlushMode.MANUAL);
+        return session;
+    }
+}
@@ -0,0 +1,53 @@
+package me.artm2000.hibernatecache.benchmark;
+
+import me.artm2000.hibernatecache.database.entity.Note;
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of listing notes in a read-write session, which keeps a snapshot of every loaded note and dirty checks
+ * them all at commit, against a read-only session with flush mode MANUAL, which is what a
+ * {@code @Transactional(readOnly = true)} method gets. Run with {@code -prof gc} to compare the allocation per list.
+ * The second level cache is off so only the persistence context is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ReadOnlySessionBenchmark {
+    @Param({"read-write", "read-only"})
+    public String mode;
+
+    @Param({"1000"})
+    public int notes;
+
+    private SessionFactory sessionFactory;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        sessionFactory = BenchmarkSessionFactory.create("read-only-benchmark", notes, false);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    public int listNotes() {
+        try (Session session = sessionFactory.openSession()) {
+            if ("read-only".equals(mode)) {
+                session.setDefaultReadOnly(true);
+                session.setHibernateFlushMode(FlushMode.MANUAL);
+            }
+            session.beginTransaction();
+            List<Note> result = session.createSelectionQuery("from Note order by id", Note.class).getResultList();
+            session.getTransaction().commit();
+            return result.size();
+        }
+    }
+}
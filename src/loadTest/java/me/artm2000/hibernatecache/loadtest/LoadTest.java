@@ -0,0 +1,274 @@
+package me.artm2000.hibernatecache.loadtest;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import me.artm2000.hibernatecache.HibernateCacheApplication;
+import me.artm2000.hibernatecache.common.cache.MeteredStorageAccess;
+import me.artm2000.hibernatecache.database.entity.Note;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * HTTP load test of the notes API. Starts a local Redis, the redis-server the embedded-redis jar ships for the
+ * platform, and the application on an in-memory H2 database in this JVM. It then creates the notes and has virtual
+ * thread clients send the configured mix of requests, first for the warm-up and then for the measurement. The
+ * throughput and latencies the clients saw, with the hit ratio of every cache region, are written to a JSON report.
+ * Needs no network and no service running, see {@link LoadTestSettings} for what to configure.
+ */
+public final class LoadTest {
+    private static final int SEED_BATCH_SIZE = 500;
+
+    private final LoadTestSettings settings;
+    private final ConfigurableApplicationContext application;
+    private final ObjectMapper objectMapper;
+    private final URI baseUri;
+    private final HttpClient http;
+    private SeededNotes notes;
+
+    private LoadTest(LoadTestSettings settings, ConfigurableApplicationContext application, HttpClient http) {
+        this.settings = settings;
+        this.application = application;
+        this.objectMapper = application.getBean(ObjectMapper.class);
+        this.baseUri = URI.create("http://127.0.0.1:" + application.getEnvironment().getProperty("local.server.port"));
+        this.http = http;
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+        int redisPort = freePort();
+        RedisServer redis = RedisServer.newRedisServer()
+            .bind("127.0.0.1")
+            .port(redisPort)
+            // nothing to keep once the run is over
+            .setting("save \"\"")
+            .setting("appendonly no")
+            .onShutdownForceStop(true)
+            .build();
+        redis.start();
+        try (ConfigurableApplicationContext application = startApplication(redisPort, settings.virtualThreads());
+             HttpClient http = HttpClient.newBuilder()
+                 .version(HttpClient.Version.HTTP_1_1)
+                 .executor(Executors.newVirtualThreadPerTaskExecutor())
+                 .connectTimeout(Duration.ofSeconds(5))
+                 .build()) {
+            new LoadTest(settings, application, http).run();
+        } finally {
+            redis.stop();
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static ConfigurableApplicationContext startApplication(int redisPort, boolean virtualThreads) {
+        return new SpringApplicationBuilder(HibernateCacheApplication.class)
+            // application.properties sets neither password, RedisConfig needs an empty one
+            .properties("spring.datasource.password=", "spring.data.redis.password=")
+            // given as command line arguments, so they take precedence over application.properties
+            .run(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:loadtest;MODE=MySQL;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.jpa.show-sql=false",
+                "--spring.threads.virtual.enabled=" + virtualThreads,
+                "--spring.data.redis.host=127.0.0.1",
+                "--spring.data.redis.port=" + redisPort,
+                // the region factory reads its redis address from the hibernate properties
+                "--spring.jpa.properties.spring.data.redis.host=127.0.0.1",
+                "--spring.jpa.properties.spring.data.redis.port=" + redisPort,
+                // the controller logs every request, which would be measured along with it
+                "--logging.level.me.artm2000.hibernatecache=WARN"
+            );
+    }
+
+    private void run() throws IOException, InterruptedException {
+        notes = seed();
+        System.out.printf("Created %d notes, warming up for %s%n", notes.size(), settings.warmUp());
+        drive(settings.warmUp(), new Recording());
+
+        Map<String, long[]> gets = cacheGets();
+        long statements = statistics().getPrepareStatementCount();
+        Instant startedAt = Instant.now();
+        System.out.printf("Measuring %d clients for %s%n", settings.clients(), settings.duration());
+        Files.createDirectories(settings.report().toAbsolutePath().getParent());
+        Recording recording = new Recording();
+        LoadTestReport.PinnedThreadsReport pinned;
+        double seconds;
+        try (PinnedThreads pinnedThreads = new PinnedThreads(settings.pinnedThreshold())) {
+            pinnedThreads.start();
+            long start = System.nanoTime();
+            drive(settings.duration(), recording);
+            seconds = (System.nanoTime() - start) / 1e9;
+            pinned = pinnedThreads.stop(settings.report().resolveSibling("pinned-threads.jfr"));
+        }
+
+        LoadTestReport report = recording.report(startedAt, seconds, settings,
+            regionReports(gets, cacheGets()), statistics().getPrepareStatementCount() - statements, pinned);
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(settings.report().toFile(), report);
+        print(report);
+    }
+
+    private SeededNotes seed() throws IOException, InterruptedException {
+        List<Note> created = new ArrayList<>(settings.notes());
+        for (int from = 0; from < settings.notes(); from += SEED_BATCH_SIZE) {
+            List<Note> batch = new ArrayList<>();
+            for (int i = from; i < Math.min(from + SEED_BATCH_SIZE, settings.notes()); i++) {
+                Note note = new Note();
+                note.setTitle("Load test note " + i);
+                note.setContent(SeededNotes.content("note " + i, settings.contentLength()));
+                batch.add(note);
+            }
+            HttpResponse<String> response = http.send(HttpRequest.newBuilder(baseUri.resolve("/v1/notes/batch"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(batch)))
+                .build(), HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("Creating the notes failed with " + response.statusCode() + ": " + response.body());
+            }
+            created.addAll(objectMapper.readValue(response.body(), new TypeReference<List<Note>>() {
+            }));
+        }
+        return new SeededNotes(created, settings.contentLength());
+    }
+
+    private void drive(Duration length, Recording recording) {
+        long deadline = System.nanoTime() + length.toNanos();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < settings.clients(); i++) {
+                clients.submit(() -> {
+                    while (System.nanoTime() < deadline && !Thread.currentThread().isInterrupted()) {
+                        send(settings.nextOperation(), recording);
+                    }
+                });
+            }
+        }
+    }
+
+    private void send(Operation operation, Recording recording) {
+        HttpRequest request = operation.request(baseUri, notes);
+        long start = System.nanoTime();
+        try {
+            HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+            recording.record(operation, System.nanoTime() - start, response.statusCode() / 100 == 2);
+        } catch (IOException e) {
+            recording.record(operation, System.nanoTime() - start, false);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Map<String, long[]> cacheGets() {
+        Map<String, long[]> gets = new TreeMap<>();
+        for (Counter counter : application.getBean(MeterRegistry.class).find(MeteredStorageAccess.GETS).counters()) {
+            long[] hitsAndMisses = gets.computeIfAbsent(counter.getId().getTag("region"), region -> new long[2]);
+            hitsAndMisses["hit".equals(counter.getId().getTag("result")) ? 0 : 1] += (long) counter.count();
+        }
+        return gets;
+    }
+
+    private static Map<String, LoadTestReport.RegionReport> regionReports(Map<String, long[]> before, Map<String, long[]> after) {
+        Map<String, LoadTestReport.RegionReport> regions = new TreeMap<>();
+        after.forEach((region, gets) -> {
+            long[] previous = before.getOrDefault(region, new long[2]);
+            regions.put(region, LoadTestReport.RegionReport.of(gets[0] - previous[0], gets[1] - previous[1]));
+        });
+        return regions;
+    }
+
+    private Statistics statistics() {
+        return application.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private static void print(LoadTestReport report) {
+        System.out.printf("%n%-12s %10s %10s %8s %8s %8s %8s %8s%n",
+            "operation", "requests", "req/s", "errors", "p50 ms", "p99 ms", "p999 ms", "max ms");
+        report.operations().forEach((operation, result) -> System.out.printf("%-12s %10d %10.1f %8d %8.2f %8.2f %8.2f %8.2f%n",
+            operation, result.requests(), result.throughput(), result.errors(), result.latency().p50(),
+            result.latency().p99(), result.latency().p999(), result.latency().max()));
+        System.out.printf("%-12s %10d %10.1f %8d%n%n", "total", report.requests(), report.throughput(), report.errors());
+        report.cacheRegions().forEach((region, result) -> System.out.printf("%-36s hit ratio %s (%d hits, %d misses)%n",
+            region, result.hitRatio() == null ? "-" : String.format("%.3f", result.hitRatio()), result.hits(), result.misses()));
+        System.out.printf("database statements: %d%n", report.databaseStatements());
+        System.out.printf("pinned virtual threads: %d events, %.1f ms, recorded in %s%n",
+            report.pinnedThreads().events(), report.pinnedThreads().totalMillis(), report.pinnedThreads().recording());
+        report.pinnedThreads().stacks().stream().limit(3).forEach(stack -> System.out.printf("  %d events, %.1f ms at %s%n",
+            stack.events(), stack.totalMillis(), stack.frames().isEmpty() ? "?" : stack.frames().get(0)));
+    }
+
+    /**
+     * Latencies, in microseconds, of the requests answered with 2xx, and the count of all requests, per operation.
+     */
+    private static class Recording {
+        private final Map<Operation, Histogram> latencies = new EnumMap<>(Operation.class);
+        private final Map<Operation, LongAdder> requests = new EnumMap<>(Operation.class);
+        private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+
+        Recording() {
+            for (Operation operation : Operation.values()) {
+                latencies.put(operation, new ConcurrentHistogram(3));
+                requests.put(operation, new LongAdder());
+                errors.put(operation, new LongAdder());
+            }
+        }
+
+        void record(Operation operation, long nanos, boolean succeeded) {
+            requests.get(operation).increment();
+            if (succeeded) {
+                latencies.get(operation).recordValue(TimeUnit.NANOSECONDS.toMicros(nanos));
+            } else {
+                errors.get(operation).increment();
+            }
+        }
+
+        LoadTestReport report(Instant startedAt, double seconds, LoadTestSettings settings,
+                              Map<String, LoadTestReport.RegionReport> cacheRegions, long databaseStatements,
+                              LoadTestReport.PinnedThreadsReport pinnedThreads) {
+            Map<String, LoadTestReport.OperationReport> operations = new LinkedHashMap<>();
+            long total = 0;
+            long failed = 0;
+            for (Operation operation : settings.mix().keySet()) {
+                long count = requests.get(operation).sum();
+                long errorCount = errors.get(operation).sum();
+                operations.put(operation.key(), new LoadTestReport.OperationReport(count, errorCount, count / seconds,
+                    LoadTestReport.Latency.of(latencies.get(operation))));
+                total += count;
+                failed += errorCount;
+            }
+            return new LoadTestReport(startedAt, LoadTestReport.Settings.of(settings), seconds, total, failed,
+                total / seconds, operations, cacheRegions, databaseStatements, pinnedThreads);
+        }
+    }
+}
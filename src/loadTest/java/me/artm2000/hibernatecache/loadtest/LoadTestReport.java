@@ -0,0 +1,86 @@
+package me.artm2000.hibernatecache.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Outcome of a load test run, written as JSON. Latencies are in milliseconds, measured by the clients from sending
+ * a request to having read its response.
+ *
+ * @param cacheRegions       hits and misses of every cache region during the measurement, from
+ *                           {@code cache.region.gets}
+ * @param databaseStatements JDBC statements Hibernate prepared during the measurement
+ * @param pinnedThreads      virtual threads pinned to their carrier during the measurement
+ */
+record LoadTestReport(
+    Instant startedAt,
+    Settings settings,
+    double seconds,
+    long requests,
+    long errors,
+    double throughput,
+    Map<String, OperationReport> operations,
+    Map<String, RegionReport> cacheRegions,
+    long databaseStatements,
+    PinnedThreadsReport pinnedThreads
+) {
+    record Settings(int clients, double warmUpSeconds, double durationSeconds, int notes, int contentLength,
+                    Map<String, Integer> mix, boolean virtualThreads, double pinnedThresholdMillis) {
+        static Settings of(LoadTestSettings settings) {
+            Map<String, Integer> mix = new LinkedHashMap<>();
+            settings.mix().forEach((operation, weight) -> mix.put(operation.key(), weight));
+            return new Settings(settings.clients(), settings.warmUp().toMillis() / 1000.0,
+                settings.duration().toMillis() / 1000.0, settings.notes(), settings.contentLength(), mix,
+                settings.virtualThreads(), settings.pinnedThreshold().toNanos() / 1e6);
+        }
+    }
+
+    /**
+     * @param errors requests that failed or were answered with a status other than 2xx
+     */
+    record OperationReport(long requests, long errors, double throughput, Latency latency) {
+    }
+
+    record Latency(double mean, double p50, double p90, double p99, double p999, double max) {
+        static Latency of(Histogram micros) {
+            return new Latency(
+                millis(micros.getMean()),
+                millis(micros.getValueAtPercentile(50)),
+                millis(micros.getValueAtPercentile(90)),
+                millis(micros.getValueAtPercentile(99)),
+                millis(micros.getValueAtPercentile(99.9)),
+                millis(micros.getMaxValue())
+            );
+        }
+
+        private static double millis(double micros) {
+            return Math.round(micros) / 1000.0;
+        }
+    }
+
+    /**
+     * @param hitRatio hits over gets, null when the region wasn't read
+     */
+    record RegionReport(long hits, long misses, Double hitRatio) {
+        static RegionReport of(long hits, long misses) {
+            return new RegionReport(hits, misses, hits + misses == 0 ? null : (double) hits / (hits + misses));
+        }
+    }
+
+    /**
+     * @param recording the JFR file the events were read from
+     * @param stacks    the stacks that were pinned longest in total, worst first
+     */
+    record PinnedThreadsReport(long events, double totalMillis, String recording, List<PinnedStack> stacks) {
+    }
+
+    /**
+     * @param frames the innermost frames outside the JDK, innermost first
+     */
+    record PinnedStack(long events, double totalMillis, double maxMillis, List<String> frames) {
+    }
+}
@@ -0,0 +1,82 @@
+package me.artm2000.hibernatecache.loadtest;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Settings of a load test run, read from the {@code loadtest.*} system properties, which {@code ./gradlew loadTest}
+ * passes on from {@code -Ploadtest.*}.
+ *
+ * @param clients           concurrent clients, each one a virtual thread sending its next request once the last one
+ *                          is answered
+ * @param warmUp            time the clients run before the measurement starts, for the JIT and the cache regions
+ * @param duration          time the measurement runs
+ * @param notes             notes created before the run, the operations pick theirs at random among them
+ * @param contentLength     characters of content of every note
+ * @param mix               relative weight of each operation, {@code by_id=60,by_title=20,list=5,update=10,archive=5}
+ * @param virtualThreads    whether the application runs with {@code spring.threads.virtual.enabled}, to compare both
+ * @param pinnedThreshold   shortest pinning of a virtual thread the JFR recording keeps
+ * @param report            file the JSON report is written to, the JFR recording goes next to it
+ */
+record LoadTestSettings(
+    int clients,
+    Duration warmUp,
+    Duration duration,
+    int notes,
+    int contentLength,
+    Map<Operation, Integer> mix,
+    boolean virtualThreads,
+    Duration pinnedThreshold,
+    Path report
+) {
+    static LoadTestSettings fromSystemProperties() {
+        return new LoadTestSettings(
+            Integer.getInteger("loadtest.clients", 32),
+            DurationStyle.detectAndParse(System.getProperty("loadtest.warm-up", "10s")),
+            DurationStyle.detectAndParse(System.getProperty("loadtest.duration", "30s")),
+            Integer.getInteger("loadtest.notes", 1000),
+            Integer.getInteger("loadtest.content-length", 512),
+            parseMix(System.getProperty("loadtest.mix", "by_id=60,by_title=20,list=5,update=10,archive=5")),
+            Boolean.parseBoolean(System.getProperty("loadtest.virtual-threads", "true")),
+            DurationStyle.detectAndParse(System.getProperty("loadtest.pinned-threshold", "1ms")),
+            Path.of(System.getProperty("loadtest.report", "build/reports/loadtest/report.json"))
+        );
+    }
+
+    Operation nextOperation() {
+        int total = mix.values().stream().mapToInt(Integer::intValue).sum();
+        int pick = ThreadLocalRandom.current().nextInt(total);
+        for (Map.Entry<Operation, Integer> weight : mix.entrySet()) {
+            pick -= weight.getValue();
+            if (pick < 0) {
+                return weight.getKey();
+            }
+        }
+        throw new IllegalStateException("No operation picked from " + mix);
+    }
+
+    private static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        Arrays.stream(mix.split(","))
+            .map(weight -> weight.trim().split("=", 2))
+            .forEach(weight -> {
+                if (weight.length != 2) {
+                    throw new IllegalArgumentException("Expected <operation>=<weight> in loadtest.mix, got " + mix);
+                }
+                int value = Integer.parseInt(weight[1].trim());
+                if (value > 0) {
+                    weights.put(Operation.of(weight[0].trim()), value);
+                }
+            });
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("loadtest.mix has no operation with a positive weight");
+        }
+        return weights;
+    }
+}
@@ -0,0 +1,87 @@
+package me.artm2000.hibernatecache.loadtest;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Requests the load test sends to the notes API, each against a note picked at random from {@link SeededNotes}.
+ */
+enum Operation {
+    BY_ID("by_id") {
+        @Override
+        HttpRequest request(URI baseUri, SeededNotes notes) {
+            return get(baseUri.resolve("/v1/notes/" + notes.randomId()));
+        }
+    },
+    BY_TITLE("by_title") {
+        @Override
+        HttpRequest request(URI baseUri, SeededNotes notes) {
+            return get(baseUri.resolve("/v1/notes/search?title="
+                + URLEncoder.encode(notes.randomTitle(), StandardCharsets.UTF_8)));
+        }
+    },
+    LIST("list") {
+        @Override
+        HttpRequest request(URI baseUri, SeededNotes notes) {
+            return get(baseUri.resolve("/v1/notes"));
+        }
+    },
+    LIST_SUMMARY("list_summary") {
+        @Override
+        HttpRequest request(URI baseUri, SeededNotes notes) {
+            return get(baseUri.resolve("/v1/notes?view=summary"));
+        }
+    },
+    UPDATE("update") {
+        @Override
+        HttpRequest request(URI baseUri, SeededNotes notes) {
+            return patch(baseUri.resolve("/v1/notes/" + notes.randomId()),
+                "{\"content\":\"" + notes.randomContent() + "\"}");
+        }
+    },
+    // archives the note, or unarchives it when it is archived already, so the list keeps its size over a long run
+    ARCHIVE("archive") {
+        @Override
+        HttpRequest request(URI baseUri, SeededNotes notes) {
+            int note = notes.randomIndex();
+            long id = notes.id(note);
+            return notes.toggleArchived(note)
+                ? patch(baseUri.resolve("/v1/notes/" + id + "/archive"), "")
+                : patch(baseUri.resolve("/v1/notes/" + id), "{\"archived\":false}");
+        }
+    };
+
+    private final String key;
+
+    Operation(String key) {
+        this.key = key;
+    }
+
+    String key() {
+        return key;
+    }
+
+    abstract HttpRequest request(URI baseUri, SeededNotes notes);
+
+    static Operation of(String key) {
+        return Arrays.stream(values())
+            .filter(operation -> operation.key.equals(key))
+            .findFirst()
+            .orElseThrow(() -> new IllegalArgumentException("Unknown operation " + key + ", expected one of "
+                + Arrays.stream(values()).map(Operation::key).toList()));
+    }
+
+    private static HttpRequest get(URI uri) {
+        return HttpRequest.newBuilder(uri).GET().build();
+    }
+
+    private static HttpRequest patch(URI uri, String body) {
+        return HttpRequest.newBuilder(uri)
+            .header("Content-Type", "application/json")
+            .method("PATCH", HttpRequest.BodyPublishers.ofString(body))
+            .build();
+    }
+}
@@ -0,0 +1,96 @@
+package me.artm2000.hibernatecache.loadtest;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JFR recording of the {@code jdk.VirtualThreadPinned} events, a virtual thread that parked or blocked while it
+ * couldn't unmount from its carrier, typically because it held a monitor. The events are summed up per stack, from
+ * the first frame outside the JDK on, since that's where the monitor is taken.
+ */
+class PinnedThreads implements AutoCloseable {
+    private static final String EVENT = "jdk.VirtualThreadPinned";
+    private static final int FRAMES = 8;
+    private static final int STACKS = 10;
+
+    private final Recording recording = new Recording();
+
+    PinnedThreads(Duration threshold) {
+        recording.enable(EVENT).withThreshold(threshold).withStackTrace();
+        recording.setName("pinned-threads");
+    }
+
+    void start() {
+        recording.start();
+    }
+
+    /**
+     * Stops the recording and writes it to {@code file}, for JDK Mission Control or {@code jfr print}.
+     */
+    LoadTestReport.PinnedThreadsReport stop(Path file) throws IOException {
+        recording.stop();
+        recording.dump(file);
+
+        Map<List<String>, long[]> stacks = new HashMap<>();
+        for (RecordedEvent event : RecordingFile.readAllEvents(file)) {
+            if (!EVENT.equals(event.getEventType().getName())) {
+                continue;
+            }
+            long nanos = event.getDuration().toNanos();
+            long[] countTotalMax = stacks.computeIfAbsent(frames(event), frames -> new long[3]);
+            countTotalMax[0]++;
+            countTotalMax[1] += nanos;
+            countTotalMax[2] = Math.max(countTotalMax[2], nanos);
+        }
+
+        List<LoadTestReport.PinnedStack> worst = new ArrayList<>();
+        stacks.forEach((frames, countTotalMax) -> worst.add(new LoadTestReport.PinnedStack(
+            countTotalMax[0], millis(countTotalMax[1]), millis(countTotalMax[2]), frames)));
+        worst.sort(Comparator.comparingDouble(LoadTestReport.PinnedStack::totalMillis).reversed());
+        return new LoadTestReport.PinnedThreadsReport(
+            worst.stream().mapToLong(LoadTestReport.PinnedStack::events).sum(),
+            worst.stream().mapToDouble(LoadTestReport.PinnedStack::totalMillis).sum(),
+            file.toString(),
+            worst.subList(0, Math.min(STACKS, worst.size()))
+        );
+    }
+
+    @Override
+    public void close() {
+        recording.close();
+    }
+
+    private static List<String> frames(RecordedEvent event) {
+        if (event.getStackTrace() == null) {
+            return List.of();
+        }
+        List<RecordedFrame> frames = event.getStackTrace().getFrames();
+        int first = 0;
+        while (first < frames.size() - 1 && isJdk(frames.get(first))) {
+            first++;
+        }
+        return frames.subList(first, Math.min(first + FRAMES, frames.size())).stream()
+            .map(frame -> frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber())
+            .toList();
+    }
+
+    private static boolean isJdk(RecordedFrame frame) {
+        String type = frame.getMethod().getType().getName();
+        return type.startsWith("java.") || type.startsWith("jdk.") || type.startsWith("sun.");
+    }
+
+    private static double millis(long nanos) {
+        return Math.round(nanos / 1000.0) / 1000.0;
+    }
+}
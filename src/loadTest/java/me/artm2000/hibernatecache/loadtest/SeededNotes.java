@@ -0,0 +1,63 @@
+package me.artm2000.hibernatecache.loadtest;
+
+import me.artm2000.hibernatecache.database.entity.Note;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * The notes created before the load test starts, with the archived flag the load test last gave each of them.
+ */
+class SeededNotes {
+    private final long[] ids;
+    private final String[] titles;
+    private final AtomicIntegerArray archived;
+    private final int contentLength;
+
+    SeededNotes(List<Note> notes, int contentLength) {
+        this.ids = notes.stream().mapToLong(Note::getId).toArray();
+        this.titles = notes.stream().map(Note::getTitle).toArray(String[]::new);
+        this.archived = new AtomicIntegerArray(notes.size());
+        this.contentLength = contentLength;
+    }
+
+    int size() {
+        return ids.length;
+    }
+
+    int randomIndex() {
+        return ThreadLocalRandom.current().nextInt(ids.length);
+    }
+
+    long id(int index) {
+        return ids[index];
+    }
+
+    long randomId() {
+        return ids[randomIndex()];
+    }
+
+    String randomTitle() {
+        return titles[randomIndex()];
+    }
+
+    String randomContent() {
+        return content(Long.toHexString(ThreadLocalRandom.current().nextLong()), contentLength);
+    }
+
+    /**
+     * @return whether the note is archived now, having been not archived before
+     */
+    boolean toggleArchived(int index) {
+        return archived.getAndUpdate(index, value -> value ^ 1) == 0;
+    }
+
+    static String content(String seed, int length) {
+        StringBuilder content = new StringBuilder(length);
+        while (content.length() < length) {
+            content.append(seed).append(' ');
+        }
+        return content.substring(0, length);
+    }
+}
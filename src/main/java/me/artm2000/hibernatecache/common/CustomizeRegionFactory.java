@@ -1,17 +1,62 @@
 package me.artm2000.hibernatecache.common;
 
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import me.artm2000.hibernatecache.common.cache.MeteredStorageAccess;
+import me.artm2000.hibernatecache.common.cache.NearCacheStorageAccess;
+import me.artm2000.hibernatecache.common.cache.RedisCircuitBreaker;
+import me.artm2000.hibernatecache.common.cache.RedisRegionStorage;
+import me.artm2000.hibernatecache.common.cache.RedissonPoolMetrics;
+import me.artm2000.hibernatecache.common.cache.RegionProperties;
 import me.artm2000.hibernatecache.common.config.RedisConfig;
 import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.cache.CacheException;
+import org.hibernate.cache.cfg.spi.DomainDataRegionBuildingContext;
+import org.hibernate.cache.cfg.spi.DomainDataRegionConfig;
+import org.hibernate.cache.spi.support.DomainDataStorageAccess;
+import org.hibernate.cache.spi.support.SimpleTimestamper;
+import org.hibernate.cache.spi.support.StorageAccess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.redisson.api.EvictionMode;
+import org.redisson.api.RMapCache;
+import org.redisson.api.RScript;
 import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.Codec;
+import org.redisson.client.codec.LongCodec;
 import org.redisson.hibernate.RedissonRegionFactory;
 import org.springframework.core.io.ClassPathResource;
 
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 public class CustomizeRegionFactory extends RedissonRegionFactory {
+    public static final String NEAR_CACHE_TOPIC_SUFFIX = ":near-cache-invalidation";
+    // a MeterRegistry instance, the regions publish no metrics without one
+    public static final String METER_REGISTRY = CONFIG_PREFIX + "meter_registry";
+    // Boolean, whether spring.threads.virtual.enabled is on, see RedisConfig#getRedissonClient
+    public static final String VIRTUAL_THREADS = CONFIG_PREFIX + "virtual_threads";
+    // per operation budget in ms, the circuit breaker is off without one
+    public static final String CIRCUIT_BREAKER_LATENCY_BUDGET = CONFIG_PREFIX + "circuit_breaker.latency_budget";
+    public static final String CIRCUIT_BREAKER_FAILURE_THRESHOLD = CONFIG_PREFIX + "circuit_breaker.failure_threshold";
+    public static final String CIRCUIT_BREAKER_PROBE_INTERVAL = CONFIG_PREFIX + "circuit_breaker.probe_interval";
+    private static final String TIMESTAMP_KEY = "redisson-hibernate-timestamp";
+    // the script of RedissonRegionFactory.nextTimestamp
+    private static final String NEXT_TIMESTAMP_SCRIPT = "local currentTime = redis.call('get', KEYS[1]);"
+        + "if currentTime == false then redis.call('set', KEYS[1], ARGV[1]); return ARGV[1]; end;"
+        + "local nextValue = math.max(tonumber(ARGV[1]), tonumber(currentTime) + 1); "
+        + "redis.call('set', KEYS[1], nextValue); return nextValue;";
+
+    private final Map<String, Codec> codecs = new ConcurrentHashMap<>();
+    private final List<RMapCache<Object, Object>> regionCaches = new CopyOnWriteArrayList<>();
+    private RedissonClient redissonClient;
+    private RedisCircuitBreaker circuitBreaker;
+    private MeterRegistry meterRegistry;
+
     @Override
     @SuppressWarnings("unchecked")
     protected RedissonClient createRedissonClient(StandardServiceRegistry registry, Map properties) {
@@ -22,7 +67,162 @@ public class CustomizeRegionFactory extends RedissonRegionFactory {
         String databaseStr = (String) properties.getOrDefault("spring.data.redis.database", "0");
         String password = (String) properties.getOrDefault("spring.data.redis.password", "");
 
-        return RedisConfig.getRedissonClient(host, port, Integer.parseInt(databaseStr), password, false);
+        boolean virtualThreads = Boolean.parseBoolean(String.valueOf(properties.get(VIRTUAL_THREADS)));
+        redissonClient = RedisConfig.getRedissonClient(host, port, Integer.parseInt(databaseStr), password, false, virtualThreads);
+        circuitBreaker = createCircuitBreaker(properties);
+        if (properties.get(METER_REGISTRY) instanceof MeterRegistry metrics) {
+            meterRegistry = metrics;
+            new RedissonPoolMetrics(redissonClient, "hibernate").bindTo(metrics);
+            if (circuitBreaker != null) {
+                Gauge.builder("cache.redis.bypassed", circuitBreaker, breaker -> breaker.isOpen() ? 1 : 0)
+                    .description("Whether the cache regions bypass Redis")
+                    .register(metrics);
+            }
+        }
+        return redissonClient;
+    }
+
+    @Override
+    protected void releaseFromUse() {
+        if (circuitBreaker != null) {
+            circuitBreaker.close();
+        }
+        super.releaseFromUse();
+    }
+
+    @Override
+    public long nextTimestamp() {
+        if (circuitBreaker == null) {
+            return super.nextTimestamp();
+        }
+        // timestamps only have to increase per node while Redis is bypassed, as Hibernate's own ones do
+        Long timestamp = circuitBreaker.read("next timestamp", () -> redissonClient.getScript(LongCodec.INSTANCE).<Long>evalAsync(
+            RScript.Mode.READ_WRITE,
+            NEXT_TIMESTAMP_SCRIPT,
+            RScript.ReturnType.INTEGER,
+            List.of(qualify(TIMESTAMP_KEY)),
+            System.currentTimeMillis() << 12
+        ), null);
+        return timestamp == null ? SimpleTimestamper.next() : timestamp;
+    }
+
+    @Override
+    protected DomainDataStorageAccess createDomainDataStorageAccess(DomainDataRegionConfig regionConfig, DomainDataRegionBuildingContext buildingContext) {
+        RegionProperties regionProperties = new RegionProperties(
+            buildingContext.getSessionFactory().getProperties(),
+            qualify(regionConfig.getRegionName()),
+            regionType(regionConfig)
+        );
+        DomainDataStorageAccess storage = createStorage(regionProperties, buildingContext.getSessionFactory());
+        applyEvictionMode(regionProperties);
+        return withMetrics(withNearCache(storage, regionProperties), regionProperties);
+    }
+
+    @Override
+    protected StorageAccess createQueryResultsRegionStorageAccess(String regionName, SessionFactoryImplementor sessionFactory) {
+        RegionProperties regionProperties = new RegionProperties(sessionFactory.getProperties(), qualify(regionName), QUERY_DEF);
+        DomainDataStorageAccess storage = createStorage(regionProperties, sessionFactory);
+        applyEvictionMode(regionProperties);
+        return withMetrics(withNearCache(storage, regionProperties), regionProperties);
+    }
+
+    @Override
+    protected StorageAccess createTimestampsRegionStorageAccess(String regionName, SessionFactoryImplementor sessionFactory) {
+        RegionProperties regionProperties = new RegionProperties(sessionFactory.getProperties(), qualify(regionName), TIMESTAMPS_DEF);
+        // timestamps are never near cached nor bounded: a stale or evicted timestamp would serve stale query results
+        return withMetrics(createStorage(regionProperties, sessionFactory), regionProperties);
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    protected RMapCache<Object, Object> getCache(String regionName, Map properties, String defaultKey) {
+        String codecClass = new RegionProperties(properties, regionName, defaultKey).get(RegionProperties.CODEC_SUFFIX, null);
+        if (codecClass == null || codecClass.isEmpty()) {
+            return super.getCache(regionName, properties, defaultKey);
+        }
+        return redissonClient.getMapCache(regionName, codecs.computeIfAbsent(codecClass, CustomizeRegionFactory::createCodec));
+    }
+
+    private static Codec createCodec(String codecClass) {
+        try {
+            return (Codec) Class.forName(codecClass).getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | ClassCastException e) {
+            throw new CacheException("Unable to create cache codec " + codecClass, e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private DomainDataStorageAccess createStorage(RegionProperties regionProperties, SessionFactoryImplementor sessionFactory) {
+        Map<String, Object> properties = sessionFactory.getProperties();
+        RMapCache<Object, Object> mapCache = getCache(regionProperties.getRegionName(), properties, regionProperties.getDefaultKey());
+        regionCaches.add(mapCache);
+        return new RedisRegionStorage(
+            mapCache,
+            redissonClient,
+            properties,
+            regionProperties.getDefaultKey(),
+            fallback,
+            circuitBreaker
+        );
+    }
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private RedisCircuitBreaker createCircuitBreaker(Map properties) {
+        long latencyBudget = Long.parseLong(properties.getOrDefault(CIRCUIT_BREAKER_LATENCY_BUDGET, "0").toString().trim());
+        if (latencyBudget <= 0) {
+            return null;
+        }
+
+        RedisCircuitBreaker breaker = new RedisCircuitBreaker(
+            latencyBudget,
+            Integer.parseInt(properties.getOrDefault(CIRCUIT_BREAKER_FAILURE_THRESHOLD, "5").toString().trim()),
+            Long.parseLong(properties.getOrDefault(CIRCUIT_BREAKER_PROBE_INTERVAL, "5000").toString().trim()),
+            () -> redissonClient.getBucket(qualify(TIMESTAMP_KEY)).isExistsAsync()
+        );
+        // writes skipped while Redis was bypassed left stale entries behind, in every region
+        breaker.onRecovery(() -> regionCaches.forEach(RMapCache::delete));
+        return breaker;
+    }
+
+    private void applyEvictionMode(RegionProperties regionProperties) {
+        int maxEntries = regionProperties.getMaxEntries();
+        EvictionMode evictionMode = regionProperties.getEvictionMode();
+        // RedissonStorage already bounds the region in LRU mode, only other modes have to be applied on top
+        if (maxEntries > 0 && evictionMode != EvictionMode.LRU) {
+            redissonClient.getMapCache(regionProperties.getRegionName()).setMaxSize(maxEntries, evictionMode);
+        }
+    }
+
+    private DomainDataStorageAccess withNearCache(DomainDataStorageAccess storage, RegionProperties regionProperties) {
+        int maxEntries = regionProperties.getInt(RegionProperties.NEAR_CACHE_MAX_ENTRIES_SUFFIX, 0);
+        if (maxEntries <= 0) {
+            return storage;
+        }
+
+        long timeToLive = regionProperties.getLong(RegionProperties.NEAR_CACHE_TTL_SUFFIX, 0);
+        return new NearCacheStorageAccess(
+            storage,
+            redissonClient.getTopic(regionProperties.getRegionName() + NEAR_CACHE_TOPIC_SUFFIX),
+            maxEntries,
+            timeToLive
+        );
+    }
+
+    private DomainDataStorageAccess withMetrics(DomainDataStorageAccess storage, RegionProperties regionProperties) {
+        return meterRegistry == null ? storage : new MeteredStorageAccess(storage, meterRegistry, regionProperties.getRegionName());
+    }
+
+    private static String regionType(DomainDataRegionConfig regionConfig) {
+        if (!regionConfig.getCollectionCaching().isEmpty()) {
+            return COLLECTION_DEF;
+        }
+        if (!regionConfig.getEntityCaching().isEmpty()) {
+            return ENTITY_DEF;
+        }
+        if (!regionConfig.getNaturalIdCaching().isEmpty()) {
+            return NATURAL_ID_DEF;
+        }
+        throw new IllegalArgumentException("Unable to determine entity cache type!");
     }
 
     @SuppressWarnings("rawtypes,unchecked")
@@ -0,0 +1,184 @@
+package me.artm2000.hibernatecache.common.actuator;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import me.artm2000.hibernatecache.common.cache.MeteredStorageAccess;
+import me.artm2000.hibernatecache.common.cache.RegionWarmer;
+import org.hibernate.cache.spi.CacheImplementor;
+import org.hibernate.cache.spi.QueryResultsRegion;
+import org.hibernate.cache.spi.Region;
+import org.hibernate.cache.spi.TimestampsRegion;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.redisson.api.RMapCache;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * {@code /actuator/l2cache}: lists the second-level cache regions with their size in Redis and hit ratio on this
+ * node, evicts a region or a single entity, and warms up a region. Unknown regions are answered with 404 on reads
+ * and 400 otherwise.
+ * <p>
+ * Evictions go through Hibernate, so near caches of other nodes drop their copies too. Evicting the timestamps
+ * region evicts every query region first, a query region whose timestamps are gone would be served as fresh.
+ */
+@Slf4j
+@Component
+@Endpoint(id = "l2cache")
+public class L2CacheEndpoint {
+    private final SessionFactoryImplementor sessionFactory;
+    private final RedissonClient redissonClient;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private final List<RegionWarmer> warmers;
+
+    public L2CacheEndpoint(EntityManagerFactory entityManagerFactory, RedissonClient redissonClient,
+                           ObjectProvider<MeterRegistry> meterRegistry, List<RegionWarmer> warmers) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        this.redissonClient = redissonClient;
+        this.meterRegistry = meterRegistry;
+        this.warmers = warmers;
+    }
+
+    @ReadOperation
+    public RegionsDescriptor regions() {
+        List<RegionDescriptor> regions = new ArrayList<>();
+        for (String name : cache().getCacheRegionNames()) {
+            regions.add(describe(cache().getRegion(name)));
+        }
+        // the timestamps region isn't listed among the others
+        regions.add(describe(cache().getTimestampsCache().getRegion()));
+        return new RegionsDescriptor(regions);
+    }
+
+    /**
+     * @return null, answered as 404, if there is no such region
+     */
+    @ReadOperation
+    public RegionDescriptor region(@Selector String region) {
+        return findRegion(region).map(this::describe).orElse(null);
+    }
+
+    @DeleteOperation
+    public EvictionResult evictRegion(@Selector String region) {
+        Region cacheRegion = findRegion(region)
+            .orElseThrow(() -> new InvalidEndpointRequestException("Unknown cache region " + region, "Unknown cache region"));
+        if (cacheRegion instanceof TimestampsRegion) {
+            cache().evictQueryRegions();
+        }
+        cacheRegion.clear();
+        log.info("Evicted cache region {}", region);
+        return new EvictionResult(region, null);
+    }
+
+    /**
+     * Evicts the entry of one entity, e.g. {@code DELETE /actuator/l2cache/entity.notes/42}.
+     */
+    @DeleteOperation
+    public EvictionResult evictEntity(@Selector String region, @Selector String id) {
+        EntityPersister persister = entityPersister(region)
+            .orElseThrow(() -> new InvalidEndpointRequestException("No entity is cached in region " + region, "Not an entity region"));
+        Object identifier;
+        try {
+            identifier = persister.getIdentifierMapping().getJavaType().fromString(id);
+        } catch (RuntimeException e) {
+            throw new InvalidEndpointRequestException("Invalid id " + id + " of " + persister.getEntityName(), "Invalid id");
+        }
+        cache().evictEntityData(persister.getEntityName(), identifier);
+        log.info("Evicted {} {} from cache region {}", persister.getEntityName(), id, region);
+        return new EvictionResult(region, id);
+    }
+
+    @WriteOperation
+    public WarmUpResult warmUp(@Selector String region) {
+        RegionWarmer warmer = warmers.stream()
+            .filter(candidate -> candidate.regions().contains(region))
+            .findFirst()
+            .orElseThrow(() -> new InvalidEndpointRequestException("No warm-up for cache region " + region, "No warm-up for region"));
+        long start = System.nanoTime();
+        long loaded = warmer.warmUp(region);
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        log.info("Warmed up cache region {} with {} reads in {} ms", region, loaded, millis);
+        return new WarmUpResult(region, loaded, millis);
+    }
+
+    private RegionDescriptor describe(Region region) {
+        RMapCache<Object, Object> map = redissonClient.getMapCache(region.getName());
+        Counter hits = getsCounter(region.getName(), "hit");
+        Counter misses = getsCounter(region.getName(), "miss");
+        Double hitRatio = null;
+        if (hits != null && misses != null && hits.count() + misses.count() > 0) {
+            hitRatio = hits.count() / (hits.count() + misses.count());
+        }
+        return new RegionDescriptor(
+            region.getName(),
+            regionType(region),
+            map.size(),
+            map.sizeInMemory(),
+            hits == null ? null : (long) hits.count(),
+            misses == null ? null : (long) misses.count(),
+            hitRatio,
+            warmers.stream().anyMatch(warmer -> warmer.regions().contains(region.getName()))
+        );
+    }
+
+    private Counter getsCounter(String region, String result) {
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        return registry == null ? null : registry.find(MeteredStorageAccess.GETS).tags("region", region, "result", result).counter();
+    }
+
+    private Optional<EntityPersister> entityPersister(String region) {
+        List<EntityPersister> persisters = new ArrayList<>();
+        sessionFactory.getMappingMetamodel().forEachEntityDescriptor(persister -> {
+            if (persister.canWriteToCache() && persister.getCacheAccessStrategy().getRegion().getName().equals(region)) {
+                persisters.add(persister);
+            }
+        });
+        // an inheritance hierarchy shares its region, the root evicts the id for every subclass
+        return persisters.stream().filter(persister -> persister.getEntityName().equals(persister.getRootEntityName())).findFirst();
+    }
+
+    private Optional<Region> findRegion(String name) {
+        Region timestamps = cache().getTimestampsCache().getRegion();
+        return Optional.ofNullable(timestamps.getName().equals(name) ? timestamps : cache().getRegion(name));
+    }
+
+    private CacheImplementor cache() {
+        return sessionFactory.getCache();
+    }
+
+    private static String regionType(Region region) {
+        if (region instanceof TimestampsRegion) {
+            return "timestamps";
+        }
+        if (region instanceof QueryResultsRegion) {
+            return "query";
+        }
+        return "domain";
+    }
+
+    public record RegionsDescriptor(List<RegionDescriptor> regions) {
+    }
+
+    public record RegionDescriptor(String name, String type, long entries, long memoryBytes, Long hits, Long misses,
+                                   Double hitRatio, boolean warmable) {
+    }
+
+    public record EvictionResult(String region, String id) {
+    }
+
+    public record WarmUpResult(String region, long loaded, long millis) {
+    }
+}
@@ -0,0 +1,19 @@
+package me.artm2000.hibernatecache.common.cache;
+
+import org.hibernate.cache.spi.support.DomainDataStorageAccess;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Region storage that can serve many keys in one Redis round trip.
+ */
+public interface BatchStorageAccess extends DomainDataStorageAccess {
+    /**
+     * @return the cached values of the given keys, missing keys are left out
+     */
+    Map<Object, Object> getAllFromCache(Collection<?> keys);
+
+    RegionBatch openBatch(SharedSessionContractImplementor session);
+}
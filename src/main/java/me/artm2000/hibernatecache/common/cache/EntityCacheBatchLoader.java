@@ -0,0 +1,97 @@
+package me.artm2000.hibernatecache.common.cache;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.cache.spi.access.EntityDataAccess;
+import org.hibernate.cache.spi.support.DomainDataRegionTemplate;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Loads entities by id, reading all of them from their cache region in one round trip
+ * instead of one Redis GET per id. Typically fed with the ids of a cached query.
+ */
+@Component
+@RequiredArgsConstructor
+public class EntityCacheBatchLoader {
+    // upper bound of ids in one IN clause for the entries the cache doesn't have
+    private static final int DATABASE_BATCH_SIZE = 500;
+
+    private final EntityManager entityManager;
+
+    /**
+     * @return the entities in the order of {@code ids}, ids that no longer exist are skipped
+     */
+    @Transactional(readOnly = true)
+    public <T> List<T> findAllById(Class<T> entityClass, List<?> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        EntityPersister persister = session.getFactory().getMappingMetamodel().getEntityDescriptor(entityClass);
+        try (RegionBatch batch = openBatch(session, persister)) {
+            EntityDataAccess cacheAccess = persister.getCacheAccessStrategy();
+            if (batch != RegionBatch.NOOP) {
+                batch.prefetch(ids.stream()
+                    .map(id -> cacheAccess.generateCacheKey(id, persister, session.getFactory(), session.getTenantIdentifier()))
+                    .toList());
+            }
+
+            // multiLoad only looks into the second level cache when given a cache mode explicitly
+            return session.byMultipleIds(entityClass)
+                .with(session.getCacheMode())
+                .withBatchSize(DATABASE_BATCH_SIZE)
+                .multiLoad(ids)
+                .stream()
+                .filter(Objects::nonNull)
+                .toList();
+        }
+    }
+
+    /**
+     * Passes the entities of {@code ids} to {@code action} one chunk of ids at a time, each chunk resolved like
+     * {@link #findAllById}. The session is cleared after every chunk, so the persistence context never holds more
+     * than one chunk of entities however many ids the stream yields.
+     * <p>
+     * The entities of {@code sharingIds}, which have the same ids as {@code entityClass}, are resolved for each
+     * chunk first, so that lazy associations to them are found in the session.
+     */
+    @Transactional(readOnly = true)
+    public <T> void forEachById(Class<T> entityClass, Stream<?> ids, Consumer<? super T> action, Class<?>... sharingIds) {
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        List<Object> chunk = new ArrayList<>(DATABASE_BATCH_SIZE);
+        Iterator<?> iterator = ids.iterator();
+        while (iterator.hasNext()) {
+            chunk.add(iterator.next());
+            if (chunk.size() == DATABASE_BATCH_SIZE || !iterator.hasNext()) {
+                for (Class<?> sharingId : sharingIds) {
+                    findAllById(sharingId, chunk);
+                }
+                findAllById(entityClass, chunk).forEach(action);
+                session.clear();
+                chunk.clear();
+            }
+        }
+    }
+
+    private static RegionBatch openBatch(SessionImplementor session, EntityPersister persister) {
+        if (!persister.canReadFromCache() || !session.getCacheMode().isGetEnabled()) {
+            return RegionBatch.NOOP;
+        }
+        if (persister.getCacheAccessStrategy().getRegion() instanceof DomainDataRegionTemplate region
+            && region.getCacheStorageAccess() instanceof BatchStorageAccess storage) {
+            return storage.openBatch(session);
+        }
+        return RegionBatch.NOOP;
+    }
+}
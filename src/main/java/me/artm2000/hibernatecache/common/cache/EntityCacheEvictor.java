@@ -0,0 +1,64 @@
+package me.artm2000.hibernatecache.common.cache;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.cache.spi.TimestampsCache;
+import org.hibernate.cache.spi.access.EntityDataAccess;
+import org.hibernate.cache.spi.access.SoftLock;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Keeps the cache coherent with rows changed by plain SQL, which Hibernate doesn't see.
+ * <p>
+ * A bulk HQL update evicts the whole entity region; this evicts only the changed ids. The ids are soft locked until
+ * the transaction completes, as Hibernate does for an entity it updates, so a concurrent load can't cache a row as it
+ * was before the update. Cached queries of the table are invalidated through its timestamps as a bulk update does, so
+ * a query that read the table before the commit can't cache its result after it either.
+ */
+@Component
+@RequiredArgsConstructor
+public class EntityCacheEvictor {
+    private final EntityManager entityManager;
+
+    /**
+     * Locks the cached entries of {@code ids} and invalidates the cached queries of the table now, and evicts the
+     * entries when the current transaction completes. To be called in the transaction, before the update runs.
+     */
+    public void evictOnCompletion(Class<?> entityClass, Collection<?> ids) {
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        SessionFactoryImplementor factory = session.getFactory();
+        EntityPersister persister = factory.getMappingMetamodel().getEntityDescriptor(entityClass);
+        EntityDataAccess cacheAccess = persister.getCacheAccessStrategy();
+        String[] querySpaces = persister.getSynchronizedQuerySpaces();
+        TimestampsCache timestamps = factory.getCache().getTimestampsCache();
+
+        // until completion a query result cached for the table is stale, from then on any cached before it
+        timestamps.preInvalidate(querySpaces, session);
+
+        Map<Object, SoftLock> locks = new HashMap<>();
+        if (persister.canWriteToCache()) {
+            for (Object id : ids) {
+                Object key = cacheAccess.generateCacheKey(id, persister, factory, session.getTenantIdentifier());
+                locks.put(key, cacheAccess.lockItem(session, key, null));
+            }
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                // an unlocked entry is a miss, the next load caches the row as committed
+                locks.forEach((key, lock) -> cacheAccess.unlockItem(session, key, lock));
+                timestamps.invalidate(querySpaces, session);
+            }
+        });
+    }
+}
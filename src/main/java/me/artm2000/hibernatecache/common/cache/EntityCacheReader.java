@@ -0,0 +1,50 @@
+package me.artm2000.hibernatecache.common.cache;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.LockMode;
+import org.hibernate.engine.spi.EntityKey;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.loader.ast.internal.CacheEntityLoaderHelper;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+
+/**
+ * Looks entities up in the persistence context and the second level cache only, never in the database. For callers
+ * that run checks of their own before a load goes to the database, and don't want to pay for them on a cache hit.
+ * <p>
+ * An entity found in the cache is assembled into the session as a load would, so a {@code find} that follows
+ * doesn't read the cache again.
+ */
+@Component
+@RequiredArgsConstructor
+public class EntityCacheReader {
+    private final EntityManager entityManager;
+
+    /**
+     * @return the entity of {@code id}, or null when neither the session nor the cache has it
+     */
+    public <T> T findCached(Class<T> entityClass, Object id) {
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        EntityPersister persister = session.getFactory().getMappingMetamodel().getEntityDescriptor(entityClass);
+        EntityKey key = session.generateEntityKey(id, persister);
+        Object entity = session.getPersistenceContextInternal().getEntity(key);
+        if (entity == null) {
+            entity = CacheEntityLoaderHelper.INSTANCE.loadFromSecondLevelCache(session.asEventSource(), null, LockMode.NONE, persister, key);
+        }
+        return entityClass.cast(entity);
+    }
+
+    /**
+     * Resolves the id through the natural id cache, then the entity like {@link #findCached}.
+     *
+     * @return the entity of {@code naturalId}, or null when the session and the caches don't have both
+     */
+    public <T> T findCachedByNaturalId(Class<T> entityClass, Object naturalId) {
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        EntityPersister persister = session.getFactory().getMappingMetamodel().getEntityDescriptor(entityClass);
+        Object id = session.getPersistenceContextInternal().getNaturalIdResolutions()
+            .findCachedIdByNaturalId(naturalId, persister);
+        return id == null ? null : findCached(entityClass, id);
+    }
+}
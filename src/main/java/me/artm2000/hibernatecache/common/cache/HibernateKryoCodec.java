@@ -0,0 +1,57 @@
+package me.artm2000.hibernatecache.common.cache;
+
+import com.esotericsoftware.kryo.Kryo;
+import org.redisson.codec.Kryo5Codec;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Kryo codec with the classes Hibernate stores in second-level cache regions registered up front,
+ * so an entry carries a small class id instead of the fully qualified class name of every object
+ * in it. Unregistered classes still work and fall back to writing their name.
+ * <p>
+ * Registration ids follow the order of {@link #REGISTERED_CLASSES}: only ever append to it, and
+ * evict the regions using this codec when an entry is removed or reordered.
+ */
+public class HibernateKryoCodec extends Kryo5Codec {
+    public static final List<String> REGISTERED_CLASSES = List.of(
+        Object[].class.getName(),
+        Serializable[].class.getName(),
+        ArrayList.class.getName(),
+        "org.hibernate.cache.spi.support.AbstractReadWriteAccess$Item",
+        "org.hibernate.cache.spi.support.AbstractReadWriteAccess$SoftLockImpl",
+        "org.hibernate.cache.spi.entry.StandardCacheEntryImpl",
+        "org.hibernate.cache.internal.CacheKeyImplementation",
+        "org.hibernate.cache.internal.BasicCacheKeyImplementation",
+        "org.hibernate.cache.internal.NaturalIdCacheKey",
+        "org.hibernate.cache.internal.QueryResultsCacheImpl$CacheItem",
+        "org.hibernate.cache.spi.QueryKey",
+        "org.hibernate.cache.spi.QueryKey$ParameterBindingsMemento",
+        "me.artm2000.hibernatecache.database.entity.Note"
+    );
+
+    public HibernateKryoCodec() {
+        this((ClassLoader) null);
+    }
+
+    public HibernateKryoCodec(ClassLoader classLoader) {
+        super(classLoader, Collections.emptySet(), false);
+    }
+
+    public HibernateKryoCodec(ClassLoader classLoader, HibernateKryoCodec codec) {
+        this(classLoader);
+    }
+
+    @Override
+    protected Kryo createKryo(ClassLoader classLoader, boolean useReferences) throws ClassNotFoundException {
+        Kryo kryo = super.createKryo(classLoader, useReferences);
+        ClassLoader loader = classLoader != null ? classLoader : HibernateKryoCodec.class.getClassLoader();
+        for (String className : REGISTERED_CLASSES) {
+            kryo.register(Class.forName(className, false, loader));
+        }
+        return kryo;
+    }
+}
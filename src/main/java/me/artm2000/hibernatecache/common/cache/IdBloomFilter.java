@@ -0,0 +1,268 @@
+package me.artm2000.hibernatecache.common.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RBloomFilter;
+import org.redisson.api.RLock;
+import org.redisson.api.RMap;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.LongCodec;
+import org.redisson.client.codec.StringCodec;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Redis Bloom filter of the ids of a table, answering a definite miss for an id without a query.
+ * <p>
+ * A Bloom filter can't forget an id, so deleted ids stay false positives until the filter is rebuilt. A rebuild
+ * fills a new generation of the filter while ids keep being added to both, then switches every node over to it.
+ * Until a first generation exists every id is a possible hit.
+ * <p>
+ * Given a {@link RedisCircuitBreaker}, lookups and adds go through it. A lookup Redis can't answer in time is a
+ * possible hit, and ids whose add was skipped are kept and added once Redis recovers, as until then they are false
+ * negatives on the nodes that reach Redis.
+ */
+@Slf4j
+public class IdBloomFilter {
+    // redis hash holding the names of the live generations
+    static final String CURRENT = "current";
+    static final String NEXT = "next";
+    static final String PREVIOUS = "previous";
+    static final String SWITCHED_AT = "switchedAt";
+    private static final int REBUILD_BATCH_SIZE = 1000;
+
+    private final RedissonClient redisson;
+    private final String name;
+    private final long expectedInsertions;
+    private final double falseProbability;
+    private final Duration refreshInterval;
+    private final Clock clock;
+    private final RMap<String, String> generations;
+    private final RedisCircuitBreaker circuitBreaker;
+    private final Set<Long> pendingIds = ConcurrentHashMap.newKeySet();
+
+    private volatile String current;
+    private volatile long refreshAt;
+
+    public IdBloomFilter(RedissonClient redisson, String name, long expectedInsertions, double falseProbability,
+                         Duration refreshInterval) {
+        this(redisson, name, expectedInsertions, falseProbability, refreshInterval, Clock.systemUTC(), null);
+    }
+
+    public IdBloomFilter(RedissonClient redisson, String name, long expectedInsertions, double falseProbability,
+                         Duration refreshInterval, RedisCircuitBreaker circuitBreaker) {
+        this(redisson, name, expectedInsertions, falseProbability, refreshInterval, Clock.systemUTC(), circuitBreaker);
+    }
+
+    public IdBloomFilter(RedissonClient redisson, String name, long expectedInsertions, double falseProbability,
+                         Duration refreshInterval, Clock clock) {
+        this(redisson, name, expectedInsertions, falseProbability, refreshInterval, clock, null);
+    }
+
+    public IdBloomFilter(RedissonClient redisson, String name, long expectedInsertions, double falseProbability,
+                         Duration refreshInterval, Clock clock, RedisCircuitBreaker circuitBreaker) {
+        this.redisson = redisson;
+        this.name = name;
+        this.expectedInsertions = expectedInsertions;
+        this.falseProbability = falseProbability;
+        this.refreshInterval = refreshInterval;
+        this.clock = clock;
+        this.generations = redisson.getMap(name, StringCodec.INSTANCE);
+        this.circuitBreaker = circuitBreaker;
+        if (circuitBreaker != null) {
+            circuitBreaker.onRecovery(this::addPending);
+        }
+    }
+
+    /**
+     * @return false only if {@code id} was never added
+     */
+    public boolean mightContain(long id) {
+        if (circuitBreaker != null) {
+            return circuitBreaker.read("id filter lookup", () -> lookupAsync(id), true);
+        }
+        String filter = currentGeneration();
+        return filter == null || bloomFilter(filter).contains(id);
+    }
+
+    /**
+     * {@link #mightContain} without blocking the caller on Redis.
+     */
+    public CompletionStage<Boolean> mightContainAsync(long id) {
+        if (circuitBreaker != null) {
+            return circuitBreaker.readAsync("id filter lookup", () -> lookupAsync(id), true);
+        }
+        return lookupAsync(id);
+    }
+
+    /**
+     * Adds the ids to every live generation. To be called once the rows are committed, a rebuild that starts
+     * later reads them from the table.
+     */
+    public void add(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        if (circuitBreaker == null) {
+            addToLiveGenerations(ids);
+        } else if (!circuitBreaker.write("id filter add", () -> addAsync(ids))) {
+            pendingIds.addAll(ids);
+        }
+    }
+
+    /**
+     * @return whether there is no generation yet, or the current one was sized differently or is full
+     */
+    public boolean needsRebuild() {
+        String filter = generations.get(CURRENT);
+        if (filter == null || !bloomFilter(filter).isExists()) {
+            return true;
+        }
+        RBloomFilter<Long> bloomFilter = bloomFilter(filter);
+        return bloomFilter.getExpectedInsertions() != expectedInsertions
+            || bloomFilter.getFalseProbability() != falseProbability
+            || bloomFilter.count() > expectedInsertions;
+    }
+
+    /**
+     * Fills a new generation with the ids and makes it the current one. The ids are read only after the new
+     * generation receives the added ids, so the supplier must not run its query before it is called.
+     *
+     * @return false if another node is rebuilding the filter, or the last rebuild is too recent for every node
+     * to have moved off the generation this one drops
+     */
+    public boolean rebuild(Supplier<Stream<Long>> ids) {
+        RLock lock = redisson.getLock(name + ":rebuild");
+        if (!lock.tryLock()) {
+            return false;
+        }
+        try {
+            // a node reads the generation it looked up last for up to the refresh interval, and a dropped one
+            // answers every id as a miss
+            Map<String, String> live = generations.readAllMap();
+            String switchedAt = live.get(SWITCHED_AT);
+            if (switchedAt != null && clock.millis() - Long.parseLong(switchedAt) < refreshInterval.toMillis()) {
+                return false;
+            }
+            if (live.containsKey(PREVIOUS)) {
+                generations.fastRemove(PREVIOUS);
+                // expires rather than goes at once, an add that read the generations before still finds it
+                bloomFilter(live.get(PREVIOUS)).expire(refreshInterval);
+            }
+
+            String next = name + ":" + redisson.getAtomicLong(name + ":generation").incrementAndGet();
+            RBloomFilter<Long> bloomFilter = bloomFilter(next);
+            bloomFilter.delete();
+            bloomFilter.tryInit(expectedInsertions, falseProbability);
+            generations.fastPut(NEXT, next);
+
+            long count;
+            try {
+                count = fill(bloomFilter, ids);
+            } catch (RuntimeException e) {
+                generations.fastRemove(NEXT);
+                bloomFilter.expire(refreshInterval);
+                throw e;
+            }
+
+            String previous = live.get(CURRENT);
+            if (previous != null) {
+                generations.fastPut(PREVIOUS, previous);
+            }
+            generations.putAll(Map.of(CURRENT, next, SWITCHED_AT, String.valueOf(clock.millis())));
+            generations.fastRemove(NEXT);
+            current = next;
+            refreshAt = clock.millis() + refreshInterval.toMillis();
+            log.info("Rebuilt id filter {} with {} ids", next, count);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static long fill(RBloomFilter<Long> bloomFilter, Supplier<Stream<Long>> ids) {
+        long count = 0;
+        try (Stream<Long> stream = ids.get()) {
+            Iterator<Long> iterator = stream.iterator();
+            List<Long> batch = new ArrayList<>(REBUILD_BATCH_SIZE);
+            while (iterator.hasNext()) {
+                batch.add(iterator.next());
+                if (batch.size() == REBUILD_BATCH_SIZE || !iterator.hasNext()) {
+                    bloomFilter.add(batch);
+                    count += batch.size();
+                    batch.clear();
+                }
+            }
+        }
+        return count;
+    }
+
+    private void addToLiveGenerations(Collection<Long> ids) {
+        Map<String, String> live = generations.readAllMap();
+        for (String generation : List.of(CURRENT, NEXT, PREVIOUS)) {
+            if (live.containsKey(generation)) {
+                bloomFilter(live.get(generation)).add(ids);
+            }
+        }
+    }
+
+    private CompletionStage<?> addAsync(Collection<Long> ids) {
+        return generations.readAllMapAsync().thenCompose(live -> CompletableFuture.allOf(Stream.of(CURRENT, NEXT, PREVIOUS)
+            .filter(live::containsKey)
+            .map(generation -> bloomFilter(live.get(generation)).addAsync(ids).toCompletableFuture())
+            .toArray(CompletableFuture[]::new)));
+    }
+
+    // run by the circuit breaker's probe while it is still open, so straight to Redis
+    private void addPending() {
+        if (pendingIds.isEmpty()) {
+            return;
+        }
+        List<Long> ids = List.copyOf(pendingIds);
+        addToLiveGenerations(ids);
+        ids.forEach(pendingIds::remove);
+        log.info("Added {} ids to id filter {} that were skipped while Redis was unhealthy", ids.size(), name);
+    }
+
+    private CompletionStage<Boolean> lookupAsync(long id) {
+        return currentGenerationAsync().thenCompose(filter -> filter == null
+            ? CompletableFuture.completedFuture(true)
+            : bloomFilter(filter).containsAsync(id));
+    }
+
+    private String currentGeneration() {
+        long now = clock.millis();
+        if (now >= refreshAt) {
+            current = generations.get(CURRENT);
+            refreshAt = now + refreshInterval.toMillis();
+        }
+        return current;
+    }
+
+    private CompletionStage<String> currentGenerationAsync() {
+        long now = clock.millis();
+        if (now < refreshAt) {
+            return CompletableFuture.completedFuture(current);
+        }
+        return generations.getAsync(CURRENT).thenApply(filter -> {
+            current = filter;
+            refreshAt = now + refreshInterval.toMillis();
+            return filter;
+        });
+    }
+
+    private RBloomFilter<Long> bloomFilter(String filter) {
+        return redisson.getBloomFilter(filter, LongCodec.INSTANCE);
+    }
+}
@@ -0,0 +1,154 @@
+package me.artm2000.hibernatecache.common.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.hibernate.cache.spi.support.DomainDataStorageAccess;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Publishes the traffic of a cache region as Micrometer meters tagged with the region name: hits and misses of
+ * {@code cache.region.gets}, {@code cache.region.puts}, {@code cache.region.evictions}, and the
+ * {@code cache.region.latency} of gets and puts, single or batched, as histograms. It sits in front of the near
+ * cache, so it measures what Hibernate waits for.
+ */
+public class MeteredStorageAccess implements BatchStorageAccess {
+    public static final String GETS = "cache.region.gets";
+    public static final String PUTS = "cache.region.puts";
+    public static final String EVICTIONS = "cache.region.evictions";
+    public static final String LATENCY = "cache.region.latency";
+
+    private final DomainDataStorageAccess delegate;
+    private final MeterRegistry registry;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter puts;
+    private final Counter evictions;
+    private final Timer getLatency;
+    private final Timer getAllLatency;
+    private final Timer putLatency;
+    private final Timer putAllLatency;
+
+    public MeteredStorageAccess(DomainDataStorageAccess delegate, MeterRegistry registry, String region) {
+        this.delegate = delegate;
+        this.registry = registry;
+        this.hits = Counter.builder(GETS).tag("region", region).tag("result", "hit").register(registry);
+        this.misses = Counter.builder(GETS).tag("region", region).tag("result", "miss").register(registry);
+        this.puts = Counter.builder(PUTS).tag("region", region).register(registry);
+        this.evictions = Counter.builder(EVICTIONS).tag("region", region).register(registry);
+        this.getLatency = latency(registry, region, "get");
+        this.getAllLatency = latency(registry, region, "get_all");
+        this.putLatency = latency(registry, region, "put");
+        this.putAllLatency = latency(registry, region, "put_all");
+    }
+
+    @Override
+    public Object getFromCache(Object key, SharedSessionContractImplementor session) {
+        Object value = getLatency.record(() -> delegate.getFromCache(key, session));
+        (value == null ? misses : hits).increment();
+        return value;
+    }
+
+    @Override
+    public void putIntoCache(Object key, Object value, SharedSessionContractImplementor session) {
+        putLatency.record(() -> delegate.putIntoCache(key, value, session));
+        puts.increment();
+    }
+
+    @Override
+    public void putFromLoad(Object key, Object value, SharedSessionContractImplementor session) {
+        putLatency.record(() -> delegate.putFromLoad(key, value, session));
+        puts.increment();
+    }
+
+    @Override
+    public void removeFromCache(Object key, SharedSessionContractImplementor session) {
+        delegate.removeFromCache(key, session);
+        evictions.increment();
+    }
+
+    @Override
+    public void clearCache(SharedSessionContractImplementor session) {
+        delegate.clearCache(session);
+        evictions.increment();
+    }
+
+    @Override
+    public boolean contains(Object key) {
+        return delegate.contains(key);
+    }
+
+    @Override
+    public void evictData() {
+        delegate.evictData();
+        evictions.increment();
+    }
+
+    @Override
+    public void evictData(Object key) {
+        delegate.evictData(key);
+        evictions.increment();
+    }
+
+    @Override
+    public Map<Object, Object> getAllFromCache(Collection<?> keys) {
+        Map<Object, Object> values = getAllLatency.record(() -> {
+            if (delegate instanceof BatchStorageAccess batchDelegate) {
+                return batchDelegate.getAllFromCache(keys);
+            }
+            Map<Object, Object> found = new HashMap<>();
+            for (Object key : keys) {
+                Object value = delegate.getFromCache(key, null);
+                if (value != null) {
+                    found.put(key, value);
+                }
+            }
+            return found;
+        });
+        hits.increment(values.size());
+        misses.increment(keys.size() - values.size());
+        return values;
+    }
+
+    @Override
+    public RegionBatch openBatch(SharedSessionContractImplementor session) {
+        if (!(delegate instanceof BatchStorageAccess batchDelegate)) {
+            return RegionBatch.NOOP;
+        }
+
+        RegionBatch batch = batchDelegate.openBatch(session);
+        return new RegionBatch() {
+            // the session's gets that follow count the hits and misses, and its loads the puts
+            @Override
+            public void prefetch(Collection<?> keys) {
+                getAllLatency.record(() -> batch.prefetch(keys));
+            }
+
+            @Override
+            public void close() {
+                putAllLatency.record(batch::close);
+            }
+        };
+    }
+
+    @Override
+    public void release() {
+        List<Meter> meters = List.of(hits, misses, puts, evictions, getLatency, getAllLatency, putLatency, putAllLatency);
+        meters.forEach(registry::remove);
+        delegate.release();
+    }
+
+    private static Timer latency(MeterRegistry registry, String region, String operation) {
+        return Timer.builder(LATENCY)
+            .tag("region", region)
+            .tag("operation", operation)
+            .publishPercentileHistogram()
+            .register(registry);
+    }
+}
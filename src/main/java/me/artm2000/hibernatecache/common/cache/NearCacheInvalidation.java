@@ -0,0 +1,7 @@
+package me.artm2000.hibernatecache.common.cache;
+
+/**
+ * Message published on a region's invalidation channel. A {@code null} key clears the whole region.
+ */
+public record NearCacheInvalidation(String origin, Object key) {
+}
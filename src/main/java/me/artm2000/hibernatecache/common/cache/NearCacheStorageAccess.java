@@ -0,0 +1,204 @@
+package me.artm2000.hibernatecache.common.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.cache.spi.access.SoftLock;
+import org.hibernate.cache.spi.support.DomainDataStorageAccess;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.redisson.api.RTopic;
+import org.redisson.api.listener.BaseStatusListener;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-JVM cache in front of a Redis backed region. Every write or eviction is
+ * published on the region's invalidation topic so the other nodes drop their
+ * local copy; the local time to live bounds staleness if a message is lost.
+ */
+@Slf4j
+public class NearCacheStorageAccess implements BatchStorageAccess {
+    private final DomainDataStorageAccess delegate;
+    private final RTopic invalidationTopic;
+    private final Cache<Object, Object> localCache;
+    private final String nodeId = UUID.randomUUID().toString();
+    // bumped on every invalidation so a slow read can't repopulate a value that was just invalidated
+    private final AtomicLong invalidations = new AtomicLong();
+    // open batch count per session, puts made inside a batch are loads
+    private final Map<SharedSessionContractImplementor, Integer> batchSessions = new ConcurrentHashMap<>();
+    private final int messageListenerId;
+    private final int statusListenerId;
+
+    public NearCacheStorageAccess(DomainDataStorageAccess delegate, RTopic invalidationTopic, int maxEntries, long timeToLiveMillis) {
+        this.delegate = delegate;
+        this.invalidationTopic = invalidationTopic;
+
+        Caffeine<Object, Object> builder = Caffeine.newBuilder().maximumSize(maxEntries);
+        if (timeToLiveMillis > 0) {
+            builder.expireAfterWrite(Duration.ofMillis(timeToLiveMillis));
+        }
+        this.localCache = builder.build();
+
+        this.messageListenerId = invalidationTopic.addListener(NearCacheInvalidation.class, (channel, message) -> {
+            if (!nodeId.equals(message.origin())) {
+                invalidateLocally(message.key());
+            }
+        });
+        // messages published while we were disconnected are lost, so start from scratch on (re)subscribe
+        this.statusListenerId = invalidationTopic.addListener(new BaseStatusListener() {
+            @Override
+            public void onSubscribe(String channel) {
+                invalidateLocally(null);
+            }
+        });
+    }
+
+    @Override
+    public Object getFromCache(Object key, SharedSessionContractImplementor session) {
+        Object value = localCache.getIfPresent(key);
+        if (value != null) {
+            return value;
+        }
+
+        long snapshot = invalidations.get();
+        value = delegate.getFromCache(key, session);
+        if (value != null && invalidations.get() == snapshot) {
+            localCache.put(key, value);
+            if (invalidations.get() != snapshot) {
+                localCache.invalidate(key);
+            }
+        }
+        return value;
+    }
+
+    @Override
+    public void putIntoCache(Object key, Object value, SharedSessionContractImplementor session) {
+        // read-write access puts loaded entries with putIntoCache too
+        if (session != null && batchSessions.containsKey(session) && !(value instanceof SoftLock)) {
+            putFromLoad(key, value, session);
+            return;
+        }
+        delegate.putIntoCache(key, value, session);
+        invalidateEverywhere(key);
+    }
+
+    @Override
+    public void putFromLoad(Object key, Object value, SharedSessionContractImplementor session) {
+        // a load carries the database state, other nodes can't hold anything newer
+        delegate.putFromLoad(key, value, session);
+        invalidateLocally(key);
+    }
+
+    @Override
+    public void removeFromCache(Object key, SharedSessionContractImplementor session) {
+        delegate.removeFromCache(key, session);
+        invalidateEverywhere(key);
+    }
+
+    @Override
+    public void clearCache(SharedSessionContractImplementor session) {
+        delegate.clearCache(session);
+        invalidateEverywhere(null);
+    }
+
+    @Override
+    public boolean contains(Object key) {
+        return localCache.getIfPresent(key) != null || delegate.contains(key);
+    }
+
+    @Override
+    public void evictData() {
+        delegate.evictData();
+        invalidateEverywhere(null);
+    }
+
+    @Override
+    public void evictData(Object key) {
+        delegate.evictData(key);
+        invalidateEverywhere(key);
+    }
+
+    @Override
+    public Map<Object, Object> getAllFromCache(Collection<?> keys) {
+        Map<Object, Object> values = new HashMap<>(localCache.getAllPresent(keys));
+        List<?> missing = keys.stream().filter(key -> !values.containsKey(key)).toList();
+        if (missing.isEmpty()) {
+            return values;
+        }
+
+        if (delegate instanceof BatchStorageAccess batchDelegate) {
+            values.putAll(batchDelegate.getAllFromCache(missing));
+        } else {
+            for (Object key : missing) {
+                Object value = delegate.getFromCache(key, null);
+                if (value != null) {
+                    values.put(key, value);
+                }
+            }
+        }
+        return values;
+    }
+
+    @Override
+    public RegionBatch openBatch(SharedSessionContractImplementor session) {
+        if (!(delegate instanceof BatchStorageAccess batchDelegate)) {
+            return RegionBatch.NOOP;
+        }
+
+        RegionBatch batch = batchDelegate.openBatch(session);
+        batchSessions.merge(session, 1, Integer::sum);
+        return new RegionBatch() {
+            @Override
+            public void prefetch(Collection<?> keys) {
+                // locally cached keys are answered by getFromCache anyway
+                List<?> missing = keys.stream().filter(key -> localCache.getIfPresent(key) == null).toList();
+                if (!missing.isEmpty()) {
+                    batch.prefetch(missing);
+                }
+            }
+
+            @Override
+            public void close() {
+                batchSessions.computeIfPresent(session, (batchSession, count) -> count == 1 ? null : count - 1);
+                batch.close();
+            }
+        };
+    }
+
+    @Override
+    public void release() {
+        invalidationTopic.removeListener(messageListenerId, statusListenerId);
+        localCache.invalidateAll();
+        delegate.release();
+    }
+
+    public long localSize() {
+        return localCache.estimatedSize();
+    }
+
+    private void invalidateEverywhere(Object key) {
+        invalidateLocally(key);
+        invalidationTopic.publishAsync(new NearCacheInvalidation(nodeId, key))
+            .whenComplete((receivers, e) -> {
+                if (e != null) {
+                    log.warn("Unable to publish near cache invalidation on {}", invalidationTopic.getChannelNames(), e);
+                }
+            });
+    }
+
+    private void invalidateLocally(Object key) {
+        invalidations.incrementAndGet();
+        if (key == null) {
+            localCache.invalidateAll();
+        } else {
+            localCache.invalidate(key);
+        }
+    }
+}
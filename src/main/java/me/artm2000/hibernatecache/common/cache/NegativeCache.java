@@ -0,0 +1,134 @@
+package me.artm2000.hibernatecache.common.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.EvictionMode;
+import org.redisson.api.RMapCache;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Remembers for a short time which keys a lookup found nothing for, so repeated lookups of them skip the database.
+ * <p>
+ * A write of a key stores a marker for the same time instead of removing its entry. A lookup that read the
+ * database before the write can then no longer store its outdated miss, it only stores one where there's no entry.
+ * <p>
+ * Given a {@link RedisCircuitBreaker}, every call goes through it. A lookup Redis can't answer in time is not a
+ * miss and stored misses are skipped. Write markers that were skipped are stored once Redis recovers, until then a
+ * miss stored before the write can hide the written key for up to the time to live.
+ */
+@Slf4j
+public class NegativeCache {
+    private static final String MISSING = "missing";
+    private static final String WRITTEN = "written";
+
+    private final RMapCache<String, String> entries;
+    private final long timeToLive;
+    private final RedisCircuitBreaker circuitBreaker;
+    private final Set<String> pendingInvalidations = ConcurrentHashMap.newKeySet();
+
+    public NegativeCache(RedissonClient redisson, String name, Duration timeToLive, int maxEntries) {
+        this(redisson, name, timeToLive, maxEntries, null);
+    }
+
+    public NegativeCache(RedissonClient redisson, String name, Duration timeToLive, int maxEntries,
+                         RedisCircuitBreaker circuitBreaker) {
+        this.entries = redisson.getMapCache(name, StringCodec.INSTANCE);
+        this.timeToLive = timeToLive.toMillis();
+        this.circuitBreaker = circuitBreaker;
+        if (maxEntries > 0) {
+            entries.setMaxSize(maxEntries, EvictionMode.LRU);
+        }
+        if (circuitBreaker != null) {
+            circuitBreaker.onRecovery(this::invalidatePending);
+        }
+    }
+
+    /**
+     * @return whether a lookup of {@code key} found nothing within the time to live
+     */
+    public boolean isMissing(String key) {
+        if (circuitBreaker != null) {
+            return circuitBreaker.read("negative cache lookup", () -> isMissingFromRedis(key), false);
+        }
+        return MISSING.equals(entries.get(key));
+    }
+
+    /**
+     * {@link #isMissing} without blocking the caller on Redis.
+     */
+    public CompletionStage<Boolean> isMissingAsync(String key) {
+        if (circuitBreaker != null) {
+            return circuitBreaker.readAsync("negative cache lookup", () -> isMissingFromRedis(key), false);
+        }
+        return isMissingFromRedis(key);
+    }
+
+    /**
+     * Stores that a lookup of {@code key} found nothing, unless the key was written since.
+     */
+    public void putMissing(String key) {
+        if (circuitBreaker != null) {
+            circuitBreaker.write("negative cache put", () ->
+                entries.fastPutIfAbsentAsync(key, MISSING, timeToLive, TimeUnit.MILLISECONDS, 0, TimeUnit.MILLISECONDS));
+            return;
+        }
+        entries.fastPutIfAbsent(key, MISSING, timeToLive, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stores that {@code key} is gone once its row is deleted, over its write marker. Only for keys that are never
+     * written again, such as generated ids.
+     */
+    public void putDeleted(String key) {
+        if (circuitBreaker != null) {
+            circuitBreaker.write("negative cache put", () -> entries.fastPutAsync(key, MISSING, timeToLive, TimeUnit.MILLISECONDS));
+            return;
+        }
+        entries.fastPut(key, MISSING, timeToLive, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * To be called once the rows of the keys are committed.
+     */
+    public void invalidate(Collection<String> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        Map<String, String> markers = markers(keys);
+        if (circuitBreaker == null) {
+            entries.putAll(markers, timeToLive, TimeUnit.MILLISECONDS);
+        } else if (!circuitBreaker.write("negative cache invalidate", () -> entries.putAllAsync(markers, timeToLive, TimeUnit.MILLISECONDS))) {
+            pendingInvalidations.addAll(markers.keySet());
+        }
+    }
+
+    private CompletionStage<Boolean> isMissingFromRedis(String key) {
+        return entries.getAsync(key).thenApply(MISSING::equals);
+    }
+
+    // run by the circuit breaker's probe while it is still open, so straight to Redis
+    private void invalidatePending() {
+        if (pendingInvalidations.isEmpty()) {
+            return;
+        }
+        List<String> keys = List.copyOf(pendingInvalidations);
+        entries.putAll(markers(keys), timeToLive, TimeUnit.MILLISECONDS);
+        keys.forEach(pendingInvalidations::remove);
+        log.info("Stored {} write markers in negative cache {} that were skipped while Redis was unhealthy", keys.size(), entries.getName());
+    }
+
+    private static Map<String, String> markers(Collection<String> keys) {
+        return keys.stream().distinct().collect(Collectors.toMap(Function.identity(), key -> WRITTEN));
+    }
+}
@@ -0,0 +1,180 @@
+package me.artm2000.hibernatecache.common.cache;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Bounds every Redis call of the caches by a latency budget and stops calling Redis once it looks unhealthy.
+ * <p>
+ * A read that fails or exceeds the budget is answered as a miss, and the given number of such reads in a row opens
+ * the breaker. A write that fails or exceeds the budget opens it at once, since the cache may now hold what the
+ * write was to replace. While open, reads are misses and writes are skipped, so sessions go straight to the
+ * database. A background probe checks Redis; once it answers, the recovery listeners make up for whatever writes were
+ * missed, and only then is the breaker closed again.
+ */
+@Slf4j
+public class RedisCircuitBreaker implements AutoCloseable {
+    private final long latencyBudgetMillis;
+    private final int failureThreshold;
+    private final long probeIntervalMillis;
+    private final Supplier<? extends CompletionStage<?>> probe;
+    private final List<Runnable> recoveryListeners = new CopyOnWriteArrayList<>();
+    private final AtomicInteger failedReads = new AtomicInteger();
+    // not synchronized, a virtual thread parking on the logger while holding a monitor would pin its carrier
+    private final ReentrantLock stateLock = new ReentrantLock();
+    private final ScheduledExecutorService prober = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "redis-circuit-breaker-probe");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile boolean open;
+    private ScheduledFuture<?> probing;
+
+    public RedisCircuitBreaker(long latencyBudgetMillis, int failureThreshold, long probeIntervalMillis,
+                               Supplier<? extends CompletionStage<?>> probe) {
+        this.latencyBudgetMillis = latencyBudgetMillis;
+        this.failureThreshold = failureThreshold;
+        this.probeIntervalMillis = probeIntervalMillis;
+        this.probe = probe;
+    }
+
+    public boolean isOpen() {
+        return open;
+    }
+
+    /**
+     * @param listener run by the probe once Redis answers again, before the breaker closes
+     */
+    public void onRecovery(Runnable listener) {
+        recoveryListeners.add(listener);
+    }
+
+    /**
+     * @return the result of {@code call}, or {@code bypassValue} if the breaker is open or the call fails or
+     * exceeds the budget
+     */
+    public <T> T read(String operation, Supplier<? extends CompletionStage<T>> call, T bypassValue) {
+        if (open) {
+            return bypassValue;
+        }
+        try {
+            T value = await(call.get());
+            failedReads.set(0);
+            return value;
+        } catch (Exception e) {
+            readFailed(operation, e);
+            return bypassValue;
+        }
+    }
+
+    /**
+     * {@link #read} without blocking the caller.
+     */
+    public <T> CompletionStage<T> readAsync(String operation, Supplier<? extends CompletionStage<T>> call, T bypassValue) {
+        if (open) {
+            return CompletableFuture.completedFuture(bypassValue);
+        }
+        CompletableFuture<T> result;
+        try {
+            // a copy, the timeout must not complete the caller's future
+            result = call.get().toCompletableFuture().copy();
+        } catch (RuntimeException e) {
+            result = CompletableFuture.failedFuture(e);
+        }
+        return result.orTimeout(latencyBudgetMillis, TimeUnit.MILLISECONDS).handle((value, e) -> {
+            if (e != null) {
+                readFailed(operation, e);
+                return bypassValue;
+            }
+            failedReads.set(0);
+            return value;
+        });
+    }
+
+    /**
+     * Runs {@code call} unless the breaker is open.
+     *
+     * @return whether the write was made, false if it was skipped or failed
+     */
+    public boolean write(String operation, Supplier<? extends CompletionStage<?>> call) {
+        if (open) {
+            return false;
+        }
+        try {
+            await(call.get());
+            return true;
+        } catch (Exception e) {
+            log.warn("Redis {} failed or exceeded {} ms, bypassing the cache until it recovers", operation, latencyBudgetMillis, e);
+            trip();
+            return false;
+        }
+    }
+
+    @Override
+    public void close() {
+        prober.shutdownNow();
+    }
+
+    private void readFailed(String operation, Throwable e) {
+        log.warn("Redis {} failed or exceeded {} ms, reading from the database", operation, latencyBudgetMillis, e);
+        if (failedReads.incrementAndGet() >= failureThreshold) {
+            trip();
+        }
+    }
+
+    private void trip() {
+        stateLock.lock();
+        try {
+            if (open) {
+                return;
+            }
+            open = true;
+            probing = prober.scheduleWithFixedDelay(this::probe, probeIntervalMillis, probeIntervalMillis, TimeUnit.MILLISECONDS);
+        } finally {
+            stateLock.unlock();
+        }
+        log.error("Redis is unhealthy, caches are bypassed until it answers within {} ms", latencyBudgetMillis);
+    }
+
+    private void probe() {
+        try {
+            await(probe.get());
+            recoveryListeners.forEach(Runnable::run);
+        } catch (Exception e) {
+            log.debug("Redis is still unhealthy", e);
+            return;
+        }
+        stateLock.lock();
+        try {
+            probing.cancel(false);
+            failedReads.set(0);
+            open = false;
+        } finally {
+            stateLock.unlock();
+        }
+        log.info("Redis recovered, caches are used again");
+    }
+
+    private <T> T await(CompletionStage<T> stage) throws InterruptedException, ExecutionException, TimeoutException {
+        try {
+            return stage.toCompletableFuture().get(latencyBudgetMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package me.artm2000.hibernatecache.common.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.cache.CacheException;
+import org.hibernate.cache.spi.access.SoftLock;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.redisson.Redisson;
+import org.redisson.api.RBatch;
+import org.redisson.api.RMapCache;
+import org.redisson.api.RMapCacheAsync;
+import org.redisson.api.RedissonClient;
+import org.redisson.hibernate.RedissonRegionFactory;
+import org.redisson.hibernate.RedissonStorage;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link RedissonStorage} that can read many keys with a single {@code RMapCache.getAll} call.
+ * <p>
+ * Hibernate reads a region key by key, so a session that is about to resolve many entries opens a
+ * {@link RegionBatch} and prefetches their keys; the session's following {@link #getFromCache} calls
+ * are then answered from the prefetched entries, found or not, instead of going to Redis one by one.
+ * Entries the session puts meanwhile for keys the prefetch found absent, typically what it loaded from the
+ * database, are buffered and written in one pipeline when the batch is closed. They are only written where the key
+ * is still absent: an entry written since, by another node's update or its soft lock, is newer than the load. A put
+ * over an entry that was there at prefetch time, which Hibernate found writeable, is written right away as without
+ * a batch.
+ * <p>
+ * Given a {@link RedisCircuitBreaker}, every Redis call goes through it: the calls are made asynchronously and
+ * waited for within its latency budget, and skipped while it is open.
+ */
+@Slf4j
+public class RedisRegionStorage extends RedissonStorage implements BatchStorageAccess {
+    private static final Object ABSENT = new Object();
+
+    private final RMapCache<Object, Object> mapCache;
+    private final RedissonClient redisson;
+    private final long timeToLive;
+    private final long maxIdleTime;
+    private final boolean fallback;
+    private final int maxEntries;
+    private final RedisCircuitBreaker circuitBreaker;
+    private final Object bypassValue;
+    private final Map<SharedSessionContractImplementor, SessionBatch> batches = new ConcurrentHashMap<>();
+
+    public RedisRegionStorage(
+        RMapCache<Object, Object> mapCache,
+        RedissonClient redisson,
+        Map<String, Object> properties,
+        String defaultKey,
+        boolean fallback
+    ) {
+        this(mapCache, redisson, properties, defaultKey, fallback, null);
+    }
+
+    public RedisRegionStorage(
+        RMapCache<Object, Object> mapCache,
+        RedissonClient redisson,
+        Map<String, Object> properties,
+        String defaultKey,
+        boolean fallback,
+        RedisCircuitBreaker circuitBreaker
+    ) {
+        super(mapCache, ((Redisson) redisson).getServiceManager(), properties, defaultKey);
+        this.mapCache = mapCache;
+        this.redisson = redisson;
+        this.fallback = fallback;
+        this.circuitBreaker = circuitBreaker;
+        // a missing timestamp means the query spaces weren't written, a bypassed one must make cached queries stale
+        this.bypassValue = RedissonRegionFactory.TIMESTAMPS_DEF.equals(defaultKey) ? Long.MAX_VALUE : null;
+
+        RegionProperties regionProperties = new RegionProperties(properties, mapCache.getName(), defaultKey);
+        this.timeToLive = regionProperties.getLong(RedissonRegionFactory.TTL_SUFFIX, 0);
+        this.maxIdleTime = regionProperties.getLong(RedissonRegionFactory.MAX_IDLE_SUFFIX, 0);
+        this.maxEntries = regionProperties.getMaxEntries();
+    }
+
+    @Override
+    public Object getFromCache(Object key, SharedSessionContractImplementor session) {
+        SessionBatch batch = session == null ? null : batches.get(session);
+        if (batch != null) {
+            Object value = batch.prefetched.get(key);
+            if (value != null) {
+                return value == ABSENT ? null : value;
+            }
+        }
+        if (circuitBreaker == null) {
+            return super.getFromCache(key, session);
+        }
+        // as RedissonStorage, skip the idle and size bookkeeping of a region that has neither
+        return circuitBreaker.read("get from " + mapCache.getName(), () -> maxIdleTime == 0 && maxEntries == 0
+            ? mapCache.getWithTTLOnlyAsync(key)
+            : mapCache.getAsync(key), bypassValue);
+    }
+
+    @Override
+    public void putIntoCache(Object key, Object value, SharedSessionContractImplementor session) {
+        SessionBatch batch = session == null ? null : batches.get(session);
+        boolean prefetchedAbsent = batch != null && batch.prefetched.get(key) == ABSENT;
+        forget(key);
+        // read-write access puts loaded entries with putIntoCache too; its soft locks must reach Redis right away.
+        // so must a load over an entry hibernate found writeable, such as an expired or unlocked soft lock, which
+        // the absent-only write of the batch would leave in place
+        if (!prefetchedAbsent || value instanceof SoftLock) {
+            if (circuitBreaker == null) {
+                super.putIntoCache(key, value, session);
+            } else {
+                circuitBreaker.write("put into " + mapCache.getName(), () ->
+                    mapCache.fastPutAsync(key, value, timeToLive, TimeUnit.MILLISECONDS, maxIdleTime, TimeUnit.MILLISECONDS));
+            }
+            return;
+        }
+        batch.loaded.put(key, value);
+        batch.prefetched.put(key, value);
+    }
+
+    @Override
+    public void evictData() {
+        batches.values().forEach(batch -> {
+            batch.prefetched.clear();
+            batch.loaded.clear();
+        });
+        if (circuitBreaker == null) {
+            super.evictData();
+        } else {
+            circuitBreaker.write("clear " + mapCache.getName(), mapCache::deleteAsync);
+        }
+    }
+
+    @Override
+    public void evictData(Object key) {
+        forget(key);
+        if (circuitBreaker == null) {
+            super.evictData(key);
+        } else {
+            circuitBreaker.write("evict from " + mapCache.getName(), () -> mapCache.fastRemoveAsync(key));
+        }
+    }
+
+    @Override
+    public boolean contains(Object key) {
+        if (circuitBreaker == null) {
+            return super.contains(key);
+        }
+        return circuitBreaker.read("contains in " + mapCache.getName(), () -> mapCache.containsKeyAsync(key), false);
+    }
+
+    @Override
+    public Map<Object, Object> getAllFromCache(Collection<?> keys) {
+        if (keys.isEmpty()) {
+            return Map.of();
+        }
+        if (circuitBreaker != null) {
+            return circuitBreaker.read("get all from " + mapCache.getName(), () -> mapCache.getAllAsync(new HashSet<>(keys)), Map.of());
+        }
+        try {
+            return mapCache.getAll(new HashSet<>(keys));
+        } catch (Exception e) {
+            if (fallback) {
+                log.error("Unable to read {} entries of cache region {}", keys.size(), mapCache.getName(), e);
+                return Map.of();
+            }
+            throw new CacheException(e);
+        }
+    }
+
+    @Override
+    public RegionBatch openBatch(SharedSessionContractImplementor session) {
+        SessionBatch batch = batches.computeIfAbsent(session, SessionBatch::new);
+        batch.depth++;
+        return batch;
+    }
+
+    /**
+     * Writes the given entries whose keys are absent with one pipeline, with the region's time to live and max idle
+     * time.
+     */
+    public void putAllIfAbsent(Map<Object, Object> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+
+        RBatch batch = redisson.createBatch();
+        RMapCacheAsync<Object, Object> map = batch.getMapCache(mapCache.getName(), mapCache.getCodec());
+        entries.forEach((key, value) ->
+            map.fastPutIfAbsentAsync(key, value, timeToLive, TimeUnit.MILLISECONDS, maxIdleTime, TimeUnit.MILLISECONDS));
+        if (circuitBreaker != null) {
+            circuitBreaker.write("put all into " + mapCache.getName(), batch::executeAsync);
+            return;
+        }
+        try {
+            batch.execute();
+        } catch (Exception e) {
+            if (fallback) {
+                log.error("Unable to write {} entries of cache region {}", entries.size(), mapCache.getName(), e);
+                return;
+            }
+            throw new CacheException(e);
+        }
+    }
+
+    // a newer write or eviction of the key wins over what a batch prefetched or loaded
+    private void forget(Object key) {
+        batches.values().forEach(batch -> {
+            batch.prefetched.remove(key);
+            batch.loaded.remove(key);
+        });
+    }
+
+    private class SessionBatch implements RegionBatch {
+        private final SharedSessionContractImplementor session;
+        private final Map<Object, Object> prefetched = new ConcurrentHashMap<>();
+        private final Map<Object, Object> loaded = new ConcurrentHashMap<>();
+        // a session is single threaded, nested batches of it just share the outer one
+        private int depth;
+
+        private SessionBatch(SharedSessionContractImplementor session) {
+            this.session = session;
+        }
+
+        @Override
+        public void prefetch(Collection<?> keys) {
+            Map<Object, Object> found = getAllFromCache(keys);
+            for (Object key : keys) {
+                Object value = found.get(key);
+                prefetched.put(key, value == null ? ABSENT : value);
+            }
+        }
+
+        @Override
+        public void close() {
+            if (--depth == 0) {
+                batches.remove(session, this);
+                putAllIfAbsent(loaded);
+            }
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package me.artm2000.hibernatecache.common.cache;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.redisson.Redisson;
+import org.redisson.api.RedissonClient;
+import org.redisson.connection.ClientConnectionsEntry;
+import org.redisson.connection.ConnectionsHolder;
+import org.redisson.connection.MasterSlaveEntry;
+
+import java.util.function.ToIntFunction;
+
+/**
+ * Gauges of a Redisson client's connection pools, summed over the Redis nodes it is connected to:
+ * {@code redis.pool.connections} open and idle, the configured {@code redis.pool.max} and the commands waiting for
+ * a connection in {@code redis.pool.pending}, tagged with the client name.
+ */
+public class RedissonPoolMetrics implements MeterBinder {
+    private final Redisson redisson;
+    private final String client;
+
+    public RedissonPoolMetrics(RedissonClient redisson, String client) {
+        this.redisson = (Redisson) redisson;
+        this.client = client;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        gauge(registry, "redis.pool.connections", "open", holder -> holder.getAllConnections().size());
+        gauge(registry, "redis.pool.connections", "idle", holder -> holder.getFreeConnections().size());
+        gauge(registry, "redis.pool.pending", null, holder -> holder.getFreeConnectionsCounter().queueSize());
+        Gauge.builder("redis.pool.max", redisson, pool -> pool.getServiceManager().getConfig().getMasterConnectionPoolSize())
+            .tag("client", client)
+            .description("Maximum connections per Redis node")
+            .register(registry);
+    }
+
+    private void gauge(MeterRegistry registry, String name, String state, ToIntFunction<ConnectionsHolder<?>> value) {
+        Gauge.Builder<Redisson> builder = Gauge.builder(name, redisson, pool -> sum(pool, value)).tag("client", client);
+        if (state != null) {
+            builder.tag("state", state);
+        }
+        builder.register(registry);
+    }
+
+    private static double sum(Redisson redisson, ToIntFunction<ConnectionsHolder<?>> value) {
+        if (redisson.isShutdown()) {
+            return Double.NaN;
+        }
+        int sum = 0;
+        for (MasterSlaveEntry entry : redisson.getCommandExecutor().getConnectionManager().getEntrySet()) {
+            for (ClientConnectionsEntry node : entry.getAllEntries()) {
+                sum += value.applyAsInt(node.getConnectionsHolder());
+            }
+        }
+        return sum;
+    }
+}
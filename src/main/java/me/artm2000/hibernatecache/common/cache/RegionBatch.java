@@ -0,0 +1,24 @@
+package me.artm2000.hibernatecache.common.cache;
+
+import java.util.Collection;
+
+/**
+ * Session scoped batch on a cache region, opened with {@link BatchStorageAccess#openBatch}.
+ * Entries prefetched through it are served to the session's following reads until it's closed.
+ */
+public interface RegionBatch extends AutoCloseable {
+    RegionBatch NOOP = new RegionBatch() {
+        @Override
+        public void prefetch(Collection<?> keys) {
+        }
+
+        @Override
+        public void close() {
+        }
+    };
+
+    void prefetch(Collection<?> keys);
+
+    @Override
+    void close();
+}
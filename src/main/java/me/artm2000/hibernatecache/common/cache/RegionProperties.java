@@ -0,0 +1,67 @@
+package me.artm2000.hibernatecache.common.cache;
+
+import org.hibernate.cache.CacheException;
+import org.redisson.api.EvictionMode;
+import org.redisson.hibernate.RedissonRegionFactory;
+
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Resolves per-region cache settings the same way Redisson does:
+ * {@code hibernate.cache.redisson.<region><suffix>} first, then
+ * {@code hibernate.cache.redisson.<type><suffix>} (entity, query, ...) as the default.
+ */
+public class RegionProperties {
+    public static final String EVICTION_MODE_SUFFIX = ".eviction.mode";
+    public static final String CODEC_SUFFIX = ".codec";
+    public static final String NEAR_CACHE_MAX_ENTRIES_SUFFIX = ".near_cache.max_entries";
+    public static final String NEAR_CACHE_TTL_SUFFIX = ".near_cache.time_to_live";
+
+    private final Map<?, ?> properties;
+    private final String regionName;
+    private final String defaultKey;
+
+    public RegionProperties(Map<?, ?> properties, String regionName, String defaultKey) {
+        this.properties = properties;
+        this.regionName = regionName;
+        this.defaultKey = defaultKey;
+    }
+
+    public String getRegionName() {
+        return regionName;
+    }
+
+    public String getDefaultKey() {
+        return defaultKey;
+    }
+
+    public String get(String suffix, String defaultValue) {
+        Object value = properties.get(RedissonRegionFactory.CONFIG_PREFIX + regionName + suffix);
+        if (value == null) {
+            value = properties.get(RedissonRegionFactory.CONFIG_PREFIX + defaultKey + suffix);
+        }
+        return value == null ? defaultValue : value.toString().trim();
+    }
+
+    public int getInt(String suffix, int defaultValue) {
+        return Integer.parseInt(get(suffix, String.valueOf(defaultValue)));
+    }
+
+    public long getLong(String suffix, long defaultValue) {
+        return Long.parseLong(get(suffix, String.valueOf(defaultValue)));
+    }
+
+    public int getMaxEntries() {
+        return getInt(RedissonRegionFactory.MAX_ENTRIES_SUFFIX, 0);
+    }
+
+    public EvictionMode getEvictionMode() {
+        String mode = get(EVICTION_MODE_SUFFIX, EvictionMode.LRU.name());
+        try {
+            return EvictionMode.valueOf(mode.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new CacheException("Unknown eviction mode " + mode + " for cache region " + regionName, e);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package me.artm2000.hibernatecache.common.cache;
+
+import java.util.Set;
+
+/**
+ * Fills cache regions ahead of the requests that would otherwise miss on them, e.g. after a region was evicted.
+ */
+public interface RegionWarmer {
+    /**
+     * @return the names of the regions {@link #warmUp} can fill
+     */
+    Set<String> regions();
+
+    /**
+     * @return the number of entities or query results read to fill the region
+     */
+    long warmUp(String region);
+}
@@ -0,0 +1,121 @@
+package me.artm2000.hibernatecache.common.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.RedisException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent loads of the same key: the first caller runs the loader, the others wait for and share its
+ * result, so a key that just dropped out of the cache is read from the database once per JVM.
+ * <p>
+ * Across nodes, the caller running the loader can also hold a Redis lock on the key. The loader of another node
+ * then starts once the first one is done and finds the entries it cached. This costs a lock round trip on every
+ * coalesced load, hits included, so it's off by default. While Redis is unhealthy, loads are only coalesced within
+ * the JVM.
+ */
+@Slf4j
+@Component
+public class SingleFlight {
+    private static final String LOCK_PREFIX = "single-flight:";
+
+    private final ConcurrentMap<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final RedissonClient redissonClient;
+    private final RedisCircuitBreaker circuitBreaker;
+    private final boolean distributed;
+    private final Duration lockWait;
+    private final Duration lockLease;
+
+    public SingleFlight(RedissonClient redissonClient, RedisCircuitBreaker circuitBreaker,
+                        @Value("${single-flight.distributed:false}") boolean distributed,
+                        @Value("${single-flight.lock-wait:2s}") Duration lockWait,
+                        @Value("${single-flight.lock-lease:10s}") Duration lockLease) {
+        this.redissonClient = redissonClient;
+        this.circuitBreaker = circuitBreaker;
+        this.distributed = distributed;
+        this.lockWait = lockWait;
+        this.lockLease = lockLease;
+    }
+
+    /**
+     * @return the result of {@code loader}, or of the loader another thread is running for {@code key}.
+     * Callers must not change it, it may be shared
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String key, Supplier<T> loader) {
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(key, flight);
+        if (running != null) {
+            return (T) await(running);
+        }
+
+        try {
+            T result = distributed && !circuitBreaker.isOpen() ? loadLocked(key, loader) : loader.get();
+            flight.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    private <T> T loadLocked(String key, Supplier<T> loader) {
+        RLock lock = redissonClient.getLock(LOCK_PREFIX + key);
+        boolean locked = false;
+        try {
+            locked = lock.tryLock(lockWait.toMillis(), lockLease.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RedisException e) {
+            log.warn("Could not take the single-flight lock on {}", key, e);
+        }
+        if (!locked) {
+            // a slow loader on another node must not block this one for longer than the wait
+            log.debug("Loading {} without the single-flight lock", key);
+        }
+        try {
+            return loader.get();
+        } finally {
+            if (locked) {
+                unlock(lock, key);
+            }
+        }
+    }
+
+    private static void unlock(RLock lock, String key) {
+        try {
+            if (lock.isHeldByCurrentThread()) {
+                lock.unlock();
+            }
+        } catch (RedisException e) {
+            // the lease releases it
+            log.warn("Could not release the single-flight lock on {}", key, e);
+        }
+    }
+
+    private static Object await(CompletableFuture<Object> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package me.artm2000.hibernatecache.common.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import me.artm2000.hibernatecache.common.CustomizeRegionFactory;
+import me.artm2000.hibernatecache.common.cache.RedissonPoolMetrics;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class CacheMetricsConfig {
+    // the region factory is created by Hibernate, it gets the registry through the session factory properties
+    @Bean
+    public HibernatePropertiesCustomizer cacheRegionMetricsCustomizer(ObjectProvider<MeterRegistry> meterRegistry) {
+        return properties -> meterRegistry.ifAvailable(registry -> properties.put(CustomizeRegionFactory.METER_REGISTRY, registry));
+    }
+
+    @Bean
+    public MeterBinder redissonPoolMetrics(RedissonClient redissonClient) {
+        return new RedissonPoolMetrics(redissonClient, "spring");
+    }
+}
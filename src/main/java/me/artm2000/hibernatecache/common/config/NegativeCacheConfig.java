@@ -0,0 +1,25 @@
+package me.artm2000.hibernatecache.common.config;
+
+import me.artm2000.hibernatecache.common.cache.NegativeCache;
+import me.artm2000.hibernatecache.common.cache.RedisCircuitBreaker;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class NegativeCacheConfig {
+    @Value("${notes.negative-cache.name:negative.notes}")
+    private String name;
+    @Value("${notes.negative-cache.time-to-live:60s}")
+    private Duration timeToLive;
+    @Value("${notes.negative-cache.max-entries:100000}")
+    private int maxEntries;
+
+    @Bean
+    public NegativeCache noteNegativeCache(RedissonClient redissonClient, RedisCircuitBreaker redisCircuitBreaker) {
+        return new NegativeCache(redissonClient, name, timeToLive, maxEntries, redisCircuitBreaker);
+    }
+}
@@ -0,0 +1,29 @@
+package me.artm2000.hibernatecache.common.config;
+
+import me.artm2000.hibernatecache.common.cache.IdBloomFilter;
+import me.artm2000.hibernatecache.common.cache.RedisCircuitBreaker;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import java.time.Duration;
+
+@Configuration
+@EnableScheduling
+public class NoteIdFilterConfig {
+    @Value("${notes.id-filter.name:notes:ids}")
+    private String name;
+    @Value("${notes.id-filter.expected-insertions:1000000}")
+    private long expectedInsertions;
+    @Value("${notes.id-filter.false-probability:0.01}")
+    private double falseProbability;
+    @Value("${notes.id-filter.refresh-interval:10s}")
+    private Duration refreshInterval;
+
+    @Bean
+    public IdBloomFilter noteIdFilter(RedissonClient redissonClient, RedisCircuitBreaker redisCircuitBreaker) {
+        return new IdBloomFilter(redissonClient, name, expectedInsertions, falseProbability, refreshInterval, redisCircuitBreaker);
+    }
+}
@@ -1,15 +1,23 @@
 package me.artm2000.hibernatecache.common.config;
 
+import me.artm2000.hibernatecache.common.CustomizeRegionFactory;
+import me.artm2000.hibernatecache.common.cache.RedisCircuitBreaker;
 import org.redisson.Redisson;
 import org.redisson.api.RedissonClient;
 import org.redisson.config.Config;
 import org.redisson.config.SingleServerConfig;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
+import java.util.concurrent.Executors;
+
 @Configuration
 public class RedisConfig {
+    private static final String PROBE_KEY = "redis-circuit-breaker:probe";
+
     @Value("${spring.data.redis.host:#{null}}")
     private String redisHost;
     @Value("${spring.data.redis.port:#{null}}")
@@ -18,14 +26,47 @@ public class RedisConfig {
     private int redisDatabase;
     @Value("${spring.data.redis.password:#{null}}")
     private String redisPassword;
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+    @Value("${redis.circuit-breaker.latency-budget:250ms}")
+    private Duration latencyBudget;
+    @Value("${redis.circuit-breaker.failure-threshold:5}")
+    private int failureThreshold;
+    @Value("${redis.circuit-breaker.probe-interval:5s}")
+    private Duration probeInterval;
 
     @Bean(destroyMethod = "shutdown")
     public RedissonClient redissonClient() {
-        return getRedissonClient(redisHost, redisPort, redisDatabase, redisPassword, false);
+        return getRedissonClient(redisHost, redisPort, redisDatabase, redisPassword, false, virtualThreads);
+    }
+
+    // the region factory has its own breaker on its own client, this one guards the caches on the client above
+    @Bean
+    public RedisCircuitBreaker redisCircuitBreaker(RedissonClient redissonClient) {
+        return new RedisCircuitBreaker(latencyBudget.toMillis(), failureThreshold, probeInterval.toMillis(),
+            () -> redissonClient.getBucket(PROBE_KEY).isExistsAsync());
+    }
+
+    // the region factory creates its own client, it learns the threading mode through the session factory properties
+    @Bean
+    public HibernatePropertiesCustomizer redissonVirtualThreadsCustomizer() {
+        return properties -> properties.put(CustomizeRegionFactory.VIRTUAL_THREADS, virtualThreads);
     }
 
     public static RedissonClient getRedissonClient(String host, String port, int database, String password, boolean useSsl) {
+        return getRedissonClient(host, port, database, password, useSsl, false);
+    }
+
+    /**
+     * @param virtualThreads run the client's listeners and topic subscribers, the near cache invalidations among them,
+     *                       on a virtual thread each instead of its pool of 16 threads
+     */
+    public static RedissonClient getRedissonClient(String host, String port, int database, String password, boolean useSsl,
+                                                   boolean virtualThreads) {
         Config config = new Config();
+        if (virtualThreads) {
+            config.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        }
         SingleServerConfig serverConfig = config.useSingleServer()
             .setAddress((useSsl ? "rediss://" : "redis://") + host + ":" + port)
             .setDatabase(database)
@@ -1,12 +1,22 @@
 package me.artm2000.hibernatecache.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import me.artm2000.hibernatecache.database.entity.Note;
+import me.artm2000.hibernatecache.dto.NotePage;
+import me.artm2000.hibernatecache.dto.NotePatch;
+import me.artm2000.hibernatecache.dto.NoteSummary;
 import me.artm2000.hibernatecache.service.NoteService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 @Slf4j
@@ -14,6 +24,7 @@ import java.util.List;
 @RequiredArgsConstructor
 public class NoteController {
     private final NoteService noteService;
+    private final ObjectMapper objectMapper;
 
     // create notes
     @PostMapping("/v1/notes")
@@ -22,6 +33,13 @@ public class NoteController {
         return noteService.createNote(note);
     }
 
+    // create many notes in one transaction, inserted with jdbc batches
+    @PostMapping("/v1/notes/batch")
+    public List<Note> createNotes(@RequestBody List<Note> notes) {
+        log.info("Creating {} notes", notes.size());
+        return noteService.createNotes(notes);
+    }
+
     // get one note by id
     @GetMapping("/v1/notes/{id}")
     public Note getNoteById(@PathVariable Long id) {
@@ -36,8 +54,25 @@ public class NoteController {
         return noteService.getNoteByTitle(title);
     }
 
+    // get the notes of the given ids, in the order asked, skipping ids that don't exist.
+    // ids and limit don't combine, no mapping of /v1/notes takes both and such a request is a 400
+    @GetMapping(value = "/v1/notes", params = {"ids", "!limit"})
+    public List<Note> getNotesByIds(@RequestParam List<Long> ids) {
+        log.info("Getting {} notes by ids", ids.size());
+        requireAtMostPageSize(ids);
+        return noteService.getNotesByIds(ids);
+    }
+
+    // same as above, for id lists too long for a query string
+    @PostMapping("/v1/notes/batch-get")
+    public List<Note> batchGetNotes(@RequestBody List<Long> ids) {
+        log.info("Batch getting {} notes", ids.size());
+        requireAtMostPageSize(ids);
+        return noteService.getNotesByIds(ids);
+    }
+
     // get all non-archived notes
-    @GetMapping("/v1/notes")
+    @GetMapping(value = "/v1/notes", params = {"!ids", "!limit"})
     public List<Note> getAllNonArchivedNotes() {
         log.info("Getting all non-archived notes");
         return noteService.getAllNonArchivedNotes();
@@ -50,6 +85,49 @@ public class NoteController {
         return noteService.getAllNotes();
     }
 
+    // get all non-archived notes without their content, for list views
+    @GetMapping(value = "/v1/notes", params = {"view=summary", "!ids", "!limit"})
+    public List<NoteSummary> getAllNonArchivedNoteSummaries() {
+        log.info("Getting summaries of all non-archived notes");
+        return noteService.getAllNonArchivedNoteSummaries();
+    }
+
+    // get all notes without their content, for list views
+    @GetMapping(value = "/v1/notes/all", params = {"view=summary", "!limit"})
+    public List<NoteSummary> getAllNoteSummaries() {
+        log.info("Getting summaries of all notes");
+        return noteService.getAllNoteSummaries();
+    }
+
+    // stream all notes, one json document per line, as they are read
+    @GetMapping(value = "/v1/notes/all", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportNotes() {
+        log.info("Exporting all notes");
+        StreamingResponseBody body = outputStream -> noteService.exportNotes(note -> {
+            try {
+                outputStream.write(objectMapper.writeValueAsBytes(note));
+                outputStream.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    // get one page of non-archived notes, ordered by id
+    @GetMapping(value = "/v1/notes", params = {"limit", "!ids"})
+    public NotePage getNonArchivedNotesPage(@RequestParam(required = false) Long afterId, @RequestParam int limit) {
+        log.info("Getting non-archived notes after id {}, limit {}", afterId, limit);
+        return noteService.getNonArchivedNotesPage(afterId, limit);
+    }
+
+    // get one page of all notes, ordered by id
+    @GetMapping(value = "/v1/notes/all", params = "limit")
+    public NotePage getNotesPage(@RequestParam(required = false) Long afterId, @RequestParam int limit) {
+        log.info("Getting notes after id {}, limit {}", afterId, limit);
+        return noteService.getNotesPage(afterId, limit);
+    }
+
     // update note by id
     @PutMapping("/v1/notes/{id}")
     public ResponseEntity<Void> updateNoteById(@PathVariable Long id, @RequestBody Note note) {
@@ -58,6 +136,14 @@ public class NoteController {
         return ResponseEntity.noContent().build();
     }
 
+    // change only the given fields of a note, as a json merge patch
+    @PatchMapping(value = "/v1/notes/{id}", consumes = {"application/merge-patch+json", MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<Void> patchNoteById(@PathVariable Long id, @RequestBody NotePatch patch) {
+        log.info("Patching note by id: {}", id);
+        noteService.patchNoteById(id, patch);
+        return ResponseEntity.noContent().build();
+    }
+
     // archive note by id
     @PatchMapping("/v1/notes/{id}/archive")
     public ResponseEntity<Void> archiveNoteById(@PathVariable Long id) {
@@ -66,6 +152,15 @@ public class NoteController {
         return ResponseEntity.noContent().build();
     }
 
+    // archive notes by ids, with one update statement
+    @PatchMapping("/v1/notes/archive")
+    public ResponseEntity<Void> archiveNotesByIds(@RequestBody List<Long> ids) {
+        log.info("Archiving {} notes by ids", ids.size());
+        requireAtMostPageSize(ids);
+        noteService.archiveNotesByIds(ids);
+        return ResponseEntity.noContent().build();
+    }
+
     // delete note by id
     @DeleteMapping("/v1/notes/{id}")
     public ResponseEntity<Void> deleteNoteById(@PathVariable Long id) {
@@ -73,4 +168,12 @@ public class NoteController {
         noteService.deleteNoteById(id);
         return ResponseEntity.noContent().build();
     }
+
+    // a request resolves all its ids at once, in one redis call and one query
+    private static void requireAtMostPageSize(List<Long> ids) {
+        if (ids.size() > NoteService.MAX_PAGE_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                "At most " + NoteService.MAX_PAGE_SIZE + " ids per request, got " + ids.size());
+        }
+    }
 }
@@ -1,25 +1,68 @@
 package me.artm2000.hibernatecache.database.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import org.hibernate.annotations.Cache;
 import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 import jakarta.persistence.*;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.hibernate.Hibernate;
 
 @Data
 @Entity
-@Table(name = "notes")
+// updates only write the changed columns, archiving doesn't resend the title
+@DynamicUpdate
+@Table(name = "notes", uniqueConstraints = @UniqueConstraint(name = "uk_notes_title", columnNames = "title"))
 @Cache(
     usage = CacheConcurrencyStrategy.READ_WRITE,
     region = "entity.notes"
 )
+// title -> id, only touched by writes of the same note, unlike the query cache which any write to notes invalidates
+@NaturalIdCache(region = "naturalid.notes")
 public class Note {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // a pooled sequence (a table on mysql) hands out ids without an insert, so inserts can be batched
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "notes_seq")
+    @SequenceGenerator(name = "notes_seq", sequenceName = "notes_seq", allocationSize = 500)
     private Long id;
+    @NaturalId(mutable = true)
     @Column(nullable = false)
     private String title;
-    @Column(nullable = false, columnDefinition = "TEXT")
-    private String content;
+    // loaded on first read and cached in a region of its own, metadata changes and lookups by title don't move it.
+    // shares the note's id, so a proxy needs no query and the note's id column is the foreign key
+    @JsonIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @OneToOne(fetch = FetchType.LAZY, optional = false, cascade = CascadeType.ALL)
+    @PrimaryKeyJoinColumn
+    private NoteContent noteContent;
     @Column(nullable = false)
     private Boolean archived = false;
+    // without a version hibernate evicts a @DynamicUpdate entity from the cache on update instead of refreshing it
+    @JsonIgnore
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private long version;
+
+    public String getContent() {
+        return noteContent == null ? null : noteContent.getContent();
+    }
+
+    public void setContent(String content) {
+        if (noteContent == null) {
+            noteContent = new NoteContent();
+            noteContent.setNote(this);
+        }
+        noteContent.setContent(content);
+    }
+
+    // logging a note must not load its content
+    @ToString.Include(name = "content")
+    private String loadedContent() {
+        return Hibernate.isInitialized(noteContent) ? getContent() : "(not loaded)";
+    }
 }
@@ -0,0 +1,33 @@
+package me.artm2000.hibernatecache.database.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+@Data
+@Entity
+// the body of a note, apart so that the notes region only holds what lists and lookups by title need
+@Table(name = "note_contents")
+@Cache(
+    usage = CacheConcurrencyStrategy.READ_WRITE,
+    region = "entity.note_contents"
+)
+public class NoteContent {
+    // the id of its note
+    @Id
+    private Long id;
+    // not mapped: an association back to the note would make the inserts of both depend on each other,
+    // and hibernate could no longer order them into one jdbc batch per table. transient for codecs as well
+    @ToString.Exclude
+    private transient Note note;
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String content;
+
+    // the note's id is generated when the note is persisted, just before the persist cascades to its content
+    @PrePersist
+    void shareNoteId() {
+        id = note.getId();
+    }
+}
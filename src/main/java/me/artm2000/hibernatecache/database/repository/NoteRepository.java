@@ -2,31 +2,70 @@ package me.artm2000.hibernatecache.database.repository;
 
 import jakarta.persistence.QueryHint;
 import me.artm2000.hibernatecache.database.entity.Note;
+import me.artm2000.hibernatecache.dto.NoteSummary;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
-import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface NoteRepository extends JpaRepository<Note, Long> {
+public interface NoteRepository extends JpaRepository<Note, Long>, NoteRepositoryCustom {
+    // ids only, the notes themselves are resolved from the entity region in one batch
+    @Query("select n.id from Note n order by n.id")
     @QueryHints({
         @QueryHint(name = "org.hibernate.cacheable", value = "true"),
-        @QueryHint(name = "org.hibernate.cacheRegion", value = "query.findNotesByTitle")
+        @QueryHint(name = "org.hibernate.cacheRegion", value = "query.findAllNotes")
     })
-    Optional<Note> findByTitle(String title);
+    List<Long> findAllIds();
 
-    @Override
+    @Query("select n.id from Note n where n.archived = :archived order by n.id")
     @QueryHints({
         @QueryHint(name = "org.hibernate.cacheable", value = "true"),
-        @QueryHint(name = "org.hibernate.cacheRegion", value = "query.findAllNotes")
+        @QueryHint(name = "org.hibernate.cacheRegion", value = "query.findAllNotesByArchived")
     })
-    List<Note> findAll();
+    List<Long> findAllIdsByArchived(Boolean archived);
 
+    // summaries in place of the notes, the query cache holds their columns and no entity region is read
+    @Query("select new me.artm2000.hibernatecache.dto.NoteSummary(n.id, n.title, n.archived, length(c.content))"
+        + " from Note n join n.noteContent c order by n.id")
     @QueryHints({
         @QueryHint(name = "org.hibernate.cacheable", value = "true"),
-        @QueryHint(name = "org.hibernate.cacheRegion", value = "query.findAllNotesByArchived")
+        @QueryHint(name = "org.hibernate.cacheRegion", value = "query.findAllNoteSummaries")
+    })
+    List<NoteSummary> findAllSummaries();
+
+    @Query("select new me.artm2000.hibernatecache.dto.NoteSummary(n.id, n.title, n.archived, length(c.content))"
+        + " from Note n join n.noteContent c where n.archived = :archived order by n.id")
+    @QueryHints({
+        @QueryHint(name = "org.hibernate.cacheable", value = "true"),
+        @QueryHint(name = "org.hibernate.cacheRegion", value = "query.findAllNoteSummariesByArchived")
+    })
+    List<NoteSummary> findAllSummariesByArchived(Boolean archived);
+
+    // keyset pages of ids, every page is a query cache entry of its own
+    @Query("select n.id from Note n where n.id > :afterId order by n.id")
+    @QueryHints({
+        @QueryHint(name = "org.hibernate.cacheable", value = "true"),
+        @QueryHint(name = "org.hibernate.cacheRegion", value = "query.findNotesPage")
+    })
+    List<Long> findIdsAfter(Long afterId, Limit limit);
+
+    @Query("select n.id from Note n where n.archived = :archived and n.id > :afterId order by n.id")
+    @QueryHints({
+        @QueryHint(name = "org.hibernate.cacheable", value = "true"),
+        @QueryHint(name = "org.hibernate.cacheRegion", value = "query.findNotesPageByArchived")
+    })
+    List<Long> findIdsByArchivedAfter(Boolean archived, Long afterId, Limit limit);
+
+    // streamed from an open cursor for exports, not cached since the ids are never held all at once
+    @Query("select n.id from Note n order by n.id")
+    @QueryHints({
+        @QueryHint(name = "org.hibernate.fetchSize", value = "500"),
+        @QueryHint(name = "org.hibernate.readOnly", value = "true")
     })
-    List<Note> findAllByArchived(Boolean archived);
+    Stream<Long> streamAllIds();
 }
@@ -0,0 +1,20 @@
+package me.artm2000.hibernatecache.database.repository;
+
+import me.artm2000.hibernatecache.database.entity.Note;
+
+import java.util.Collection;
+import java.util.Optional;
+
+public interface NoteRepositoryCustom {
+    /**
+     * Resolves the note by its natural id through the natural id cache, without the query cache.
+     */
+    Optional<Note> findByTitle(String title);
+
+    /**
+     * Archives the notes with one update statement, bypassing the persistence context and the second level cache.
+     *
+     * @return the number of notes updated
+     */
+    int archiveAllById(Collection<Long> ids);
+}
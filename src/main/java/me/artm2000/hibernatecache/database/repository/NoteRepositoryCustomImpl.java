@@ -0,0 +1,29 @@
+package me.artm2000.hibernatecache.database.repository;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import me.artm2000.hibernatecache.database.entity.Note;
+import org.hibernate.Session;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+
+@RequiredArgsConstructor
+public class NoteRepositoryCustomImpl implements NoteRepositoryCustom {
+    private final EntityManager entityManager;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Override
+    public Optional<Note> findByTitle(String title) {
+        return entityManager.unwrap(Session.class).bySimpleNaturalId(Note.class).loadOptional(title);
+    }
+
+    @Override
+    public int archiveAllById(Collection<Long> ids) {
+        // plain sql so hibernate doesn't evict the whole entity.notes region as it does for a bulk hql update,
+        // EntityCacheEvictor soft locks only the archived ids
+        return jdbcTemplate.update("update notes set archived = true, version = version + 1 where id in (:ids)", Map.of("ids", ids));
+    }
+}
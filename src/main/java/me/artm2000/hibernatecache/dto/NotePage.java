@@ -0,0 +1,12 @@
+package me.artm2000.hibernatecache.dto;
+
+import me.artm2000.hibernatecache.database.entity.Note;
+
+import java.util.List;
+
+/**
+ * One keyset page of notes, ordered by id. Pass {@code nextAfterId} as {@code afterId} to get the
+ * next page; it's null on the last page.
+ */
+public record NotePage(List<Note> notes, Long nextAfterId) {
+}
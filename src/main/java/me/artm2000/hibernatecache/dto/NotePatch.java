@@ -0,0 +1,7 @@
+package me.artm2000.hibernatecache.dto;
+
+/**
+ * JSON merge patch of a note. Members left out, or null since no column of a note is nullable, keep their value.
+ */
+public record NotePatch(String title, String content, Boolean archived) {
+}
@@ -0,0 +1,8 @@
+package me.artm2000.hibernatecache.dto;
+
+/**
+ * A note as list views show it, without its content. Selected column by column, so the TEXT content is neither
+ * sent by the database nor cached, only its length in characters.
+ */
+public record NoteSummary(Long id, String title, Boolean archived, Integer contentLength) {
+}
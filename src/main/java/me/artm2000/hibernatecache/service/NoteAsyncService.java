@@ -0,0 +1,32 @@
+package me.artm2000.hibernatecache.service;
+
+import me.artm2000.hibernatecache.database.entity.Note;
+import me.artm2000.hibernatecache.dto.NotePage;
+import me.artm2000.hibernatecache.dto.NoteSummary;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * The read paths of {@link NoteService}, answered without blocking the caller, so a request fanning out to several
+ * of them waits for the slowest one rather than for their sum. The results are the same as the sync ones.
+ */
+public interface NoteAsyncService {
+    CompletableFuture<Note> getNoteById(Long id);
+
+    CompletableFuture<Note> getNoteByTitle(String title);
+
+    CompletableFuture<List<Note>> getNotesByIds(List<Long> ids);
+
+    CompletableFuture<List<Note>> getAllNonArchivedNotes();
+
+    CompletableFuture<List<Note>> getAllNotes();
+
+    CompletableFuture<List<NoteSummary>> getAllNonArchivedNoteSummaries();
+
+    CompletableFuture<List<NoteSummary>> getAllNoteSummaries();
+
+    CompletableFuture<NotePage> getNonArchivedNotesPage(Long afterId, int limit);
+
+    CompletableFuture<NotePage> getNotesPage(Long afterId, int limit);
+}
@@ -1,23 +1,48 @@
 package me.artm2000.hibernatecache.service;
 
 import me.artm2000.hibernatecache.database.entity.Note;
+import me.artm2000.hibernatecache.dto.NotePage;
+import me.artm2000.hibernatecache.dto.NotePatch;
+import me.artm2000.hibernatecache.dto.NoteSummary;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface NoteService {
+    // the most notes a page holds, and the most ids a request can name
+    int MAX_PAGE_SIZE = 500;
+
     Note createNote(Note note);
 
+    List<Note> createNotes(List<Note> notes);
+
     Note getNoteById(Long id);
 
     Note getNoteByTitle(String title);
 
+    List<Note> getNotesByIds(List<Long> ids);
+
     List<Note> getAllNonArchivedNotes();
 
     List<Note> getAllNotes();
 
+    List<NoteSummary> getAllNonArchivedNoteSummaries();
+
+    List<NoteSummary> getAllNoteSummaries();
+
+    NotePage getNonArchivedNotesPage(Long afterId, int limit);
+
+    NotePage getNotesPage(Long afterId, int limit);
+
+    void exportNotes(Consumer<Note> consumer);
+
     void updateNoteById(Long id, Note note);
 
+    void patchNoteById(Long id, NotePatch patch);
+
     void archiveNoteById(Long id);
 
+    void archiveNotesByIds(List<Long> ids);
+
     void deleteNoteById(Long id);
 }
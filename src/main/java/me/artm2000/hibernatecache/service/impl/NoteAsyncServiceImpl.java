@@ -0,0 +1,101 @@
+package me.artm2000.hibernatecache.service.impl;
+
+import me.artm2000.hibernatecache.common.cache.IdBloomFilter;
+import me.artm2000.hibernatecache.common.cache.NegativeCache;
+import me.artm2000.hibernatecache.database.entity.Note;
+import me.artm2000.hibernatecache.dto.NotePage;
+import me.artm2000.hibernatecache.dto.NoteSummary;
+import me.artm2000.hibernatecache.service.NoteAsyncService;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+/**
+ * Checks the id filter and the negative cache with Redisson's async commands, and only hands the lookups they can't
+ * answer to {@link NoteServiceImpl}, on the application task executor. The loads coalesce with the sync ones and
+ * read through the same cache regions.
+ * <p>
+ * Hibernate's session is bound to a thread, so a load still blocks the thread it runs on, a virtual one when
+ * {@code spring.threads.virtual.enabled} is set.
+ */
+@Service
+public class NoteAsyncServiceImpl implements NoteAsyncService {
+    private final NoteServiceImpl noteService;
+    private final IdBloomFilter noteIdFilter;
+    private final NegativeCache noteNegativeCache;
+    private final Executor executor;
+
+    public NoteAsyncServiceImpl(NoteServiceImpl noteService,
+                                IdBloomFilter noteIdFilter,
+                                NegativeCache noteNegativeCache,
+                                @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME) Executor executor) {
+        this.noteService = noteService;
+        this.noteIdFilter = noteIdFilter;
+        this.noteNegativeCache = noteNegativeCache;
+        this.executor = executor;
+    }
+
+    @Override
+    public CompletableFuture<Note> getNoteById(Long id) {
+        // both checks are sent at once: an id that was never created costs a negative cache read it doesn't need,
+        // every other one saves a round trip
+        CompletableFuture<Boolean> mightExist = id == null
+            ? CompletableFuture.completedFuture(true)
+            : noteIdFilter.mightContainAsync(id).toCompletableFuture();
+        CompletableFuture<Boolean> missing = noteNegativeCache.isMissingAsync(NoteServiceImpl.idKey(id)).toCompletableFuture();
+        return mightExist.thenCombine(missing, (mayExist, isMissing) -> mayExist && !isMissing)
+            .thenCompose(load -> load ? supply(() -> noteService.loadNoteById(id)) : CompletableFuture.completedFuture(null));
+    }
+
+    @Override
+    public CompletableFuture<Note> getNoteByTitle(String title) {
+        return noteNegativeCache.isMissingAsync(NoteServiceImpl.titleKey(title)).toCompletableFuture()
+            .thenCompose(isMissing -> isMissing
+                ? CompletableFuture.completedFuture(null)
+                : supply(() -> noteService.loadNoteByTitle(title)));
+    }
+
+    @Override
+    public CompletableFuture<List<Note>> getNotesByIds(List<Long> ids) {
+        return supply(() -> noteService.getNotesByIds(ids));
+    }
+
+    @Override
+    public CompletableFuture<List<Note>> getAllNonArchivedNotes() {
+        return supply(noteService::getAllNonArchivedNotes);
+    }
+
+    @Override
+    public CompletableFuture<List<Note>> getAllNotes() {
+        return supply(noteService::getAllNotes);
+    }
+
+    @Override
+    public CompletableFuture<List<NoteSummary>> getAllNonArchivedNoteSummaries() {
+        return supply(noteService::getAllNonArchivedNoteSummaries);
+    }
+
+    @Override
+    public CompletableFuture<List<NoteSummary>> getAllNoteSummaries() {
+        return supply(noteService::getAllNoteSummaries);
+    }
+
+    @Override
+    public CompletableFuture<NotePage> getNonArchivedNotesPage(Long afterId, int limit) {
+        return supply(() -> noteService.getNonArchivedNotesPage(afterId, limit));
+    }
+
+    @Override
+    public CompletableFuture<NotePage> getNotesPage(Long afterId, int limit) {
+        return supply(() -> noteService.getNotesPage(afterId, limit));
+    }
+
+    private <T> CompletableFuture<T> supply(Supplier<T> load) {
+        return CompletableFuture.supplyAsync(load, executor);
+    }
+}
@@ -0,0 +1,50 @@
+package me.artm2000.hibernatecache.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import me.artm2000.hibernatecache.common.cache.RegionWarmer;
+import me.artm2000.hibernatecache.service.NoteService;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Warms the note regions through the regular read paths. Pages are left out, their cache keys depend on the
+ * page size the clients ask for.
+ */
+@Component
+@RequiredArgsConstructor
+public class NoteCacheWarmer implements RegionWarmer {
+    static final String ENTITY_REGION = "entity.notes";
+    static final String CONTENT_REGION = "entity.note_contents";
+    static final String NATURAL_ID_REGION = "naturalid.notes";
+    static final String ALL_NOTES_REGION = "query.findAllNotes";
+    static final String NON_ARCHIVED_NOTES_REGION = "query.findAllNotesByArchived";
+    static final String ALL_SUMMARIES_REGION = "query.findAllNoteSummaries";
+    static final String NON_ARCHIVED_SUMMARIES_REGION = "query.findAllNoteSummariesByArchived";
+
+    private final NoteService noteService;
+
+    @Override
+    public Set<String> regions() {
+        return Set.of(ENTITY_REGION, CONTENT_REGION, NATURAL_ID_REGION, ALL_NOTES_REGION, NON_ARCHIVED_NOTES_REGION,
+            ALL_SUMMARIES_REGION, NON_ARCHIVED_SUMMARIES_REGION);
+    }
+
+    @Override
+    public long warmUp(String region) {
+        return switch (region) {
+            // loading a note caches its content and its title resolution as well
+            case ENTITY_REGION, CONTENT_REGION, NATURAL_ID_REGION -> {
+                AtomicLong count = new AtomicLong();
+                noteService.exportNotes(note -> count.incrementAndGet());
+                yield count.get();
+            }
+            case ALL_NOTES_REGION -> noteService.getAllNotes().size();
+            case NON_ARCHIVED_NOTES_REGION -> noteService.getAllNonArchivedNotes().size();
+            case ALL_SUMMARIES_REGION -> noteService.getAllNoteSummaries().size();
+            case NON_ARCHIVED_SUMMARIES_REGION -> noteService.getAllNonArchivedNoteSummaries().size();
+            default -> throw new IllegalArgumentException("Unable to warm up cache region " + region);
+        };
+    }
+}
@@ -0,0 +1,39 @@
+package me.artm2000.hibernatecache.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import me.artm2000.hibernatecache.common.cache.IdBloomFilter;
+import me.artm2000.hibernatecache.database.repository.NoteRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Builds the note id filter on startup when Redis has none, and rebuilds it on a schedule to drop deleted ids
+ * and pick up rows inserted around the application.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class NoteIdFilterRebuildJob {
+    private final IdBloomFilter noteIdFilter;
+    private final NoteRepository noteRepository;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuildIfNeeded() {
+        if (noteIdFilter.needsRebuild()) {
+            rebuild();
+        }
+    }
+
+    @Scheduled(cron = "${notes.id-filter.rebuild-cron:0 30 3 * * *}")
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        if (!noteIdFilter.rebuild(noteRepository::streamAllIds)) {
+            log.info("Note id filter is being rebuilt by another node");
+        }
+    }
+}
@@ -1,70 +1,340 @@
 package me.artm2000.hibernatecache.service.impl;
 
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import me.artm2000.hibernatecache.common.cache.EntityCacheBatchLoader;
+import me.artm2000.hibernatecache.common.cache.EntityCacheEvictor;
+import me.artm2000.hibernatecache.common.cache.EntityCacheReader;
+import me.artm2000.hibernatecache.common.cache.IdBloomFilter;
+import me.artm2000.hibernatecache.common.cache.NegativeCache;
+import me.artm2000.hibernatecache.common.cache.SingleFlight;
 import me.artm2000.hibernatecache.database.entity.Note;
+import me.artm2000.hibernatecache.database.entity.NoteContent;
 import me.artm2000.hibernatecache.database.repository.NoteRepository;
+import me.artm2000.hibernatecache.dto.NotePage;
+import me.artm2000.hibernatecache.dto.NotePatch;
+import me.artm2000.hibernatecache.dto.NoteSummary;
 import me.artm2000.hibernatecache.service.NoteService;
+import org.hibernate.CacheMode;
+import org.hibernate.Hibernate;
+import org.hibernate.Session;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class NoteServiceImpl implements NoteService {
     private final NoteRepository noteRepository;
+    private final EntityCacheBatchLoader entityCacheBatchLoader;
+    private final EntityCacheEvictor entityCacheEvictor;
+    private final EntityCacheReader entityCacheReader;
+    private final EntityManager entityManager;
+    private final IdBloomFilter noteIdFilter;
+    private final NegativeCache noteNegativeCache;
+    private final SingleFlight singleFlight;
+    private final PlatformTransactionManager transactionManager;
 
     @Override
     public Note createNote(Note note) {
-        return noteRepository.save(note);
+        // save commits on its own, the note is in the table by now
+        Note savedNote = noteRepository.save(note);
+        try {
+            noteIdFilter.add(List.of(savedNote.getId()));
+        } catch (RuntimeException e) {
+            log.warn("Could not add note {} to the id filter, it is a false negative until the next rebuild", savedNote.getId(), e);
+        }
+        try {
+            noteNegativeCache.invalidate(List.of(idKey(savedNote.getId()), titleKey(savedNote.getTitle())));
+        } catch (RuntimeException e) {
+            log.warn("Could not invalidate the negative cache for note {}, a stored miss hides it until it expires", savedNote.getId(), e);
+        }
+        return savedNote;
+    }
+
+    @Override
+    @Transactional
+    public List<Note> createNotes(List<Note> notes) {
+        // an import rarely reads back what it wrote, so skip the redis write per note at commit
+        // and let the notes be cached on their first read, in batches
+        Session session = entityManager.unwrap(Session.class);
+        CacheMode cacheMode = session.getCacheMode();
+        session.setCacheMode(CacheMode.GET);
+        // hibernate puts inserted entities after the commit, the session keeps the cache mode until then
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                session.setCacheMode(cacheMode);
+            }
+        });
+        List<Note> savedNotes = noteRepository.saveAll(notes);
+        // the ids come from the sequence, but a rebuild running now only sees the notes once committed
+        List<Long> ids = savedNotes.stream().map(Note::getId).toList();
+        List<String> keys = savedNotes.stream()
+            .flatMap(note -> Stream.of(idKey(note.getId()), titleKey(note.getTitle())))
+            .toList();
+        afterCommit(() -> {
+            noteIdFilter.add(ids);
+            noteNegativeCache.invalidate(keys);
+        });
+        return savedNotes;
     }
 
     @Override
     public Note getNoteById(Long id) {
-        return noteRepository.findById(id).orElse(null);
+        String key = idKey(id);
+        return coalesce(key, () -> {
+            Note cached = id == null ? null : entityCacheReader.findCached(Note.class, id);
+            if (cached != null) {
+                detachWithContent(cached);
+                return cached;
+            }
+            // an id that was never created misses the cache, don't send it to the database
+            if (id != null && !noteIdFilter.mightContain(id)) {
+                return null;
+            }
+            return findUnlessMissing(key, () -> noteRepository.findById(id));
+        });
     }
 
     @Override
     public Note getNoteByTitle(String title) {
-        return noteRepository.findByTitle(title).orElse(null);
+        String key = titleKey(title);
+        return coalesce(key, () -> {
+            Note cached = title == null ? null : entityCacheReader.findCachedByNaturalId(Note.class, title);
+            if (cached != null) {
+                detachWithContent(cached);
+                return cached;
+            }
+            return findUnlessMissing(key, () -> noteRepository.findByTitle(title));
+        });
+    }
+
+    /**
+     * {@link #getNoteById} for a caller that checked the id filter and the negative cache already, such as
+     * {@link NoteAsyncServiceImpl}. Shares its load with concurrent {@link #getNoteById} calls.
+     */
+    public Note loadNoteById(Long id) {
+        String key = idKey(id);
+        return coalesce(key, () -> findRememberingMiss(key, () -> noteRepository.findById(id)));
+    }
+
+    /**
+     * {@link #getNoteByTitle} for a caller that checked the negative cache already.
+     */
+    public Note loadNoteByTitle(String title) {
+        String key = titleKey(title);
+        return coalesce(key, () -> findRememberingMiss(key, () -> noteRepository.findByTitle(title)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Note> getNotesByIds(List<Long> ids) {
+        return findAllWithContent(ids);
     }
 
     @Override
     public List<Note> getAllNonArchivedNotes() {
-        return noteRepository.findAllByArchived(false);
+        return coalesce("all:archived=false",
+            () -> findAllDetached(noteRepository.findAllIdsByArchived(false)));
     }
 
     @Override
     public List<Note> getAllNotes() {
-        return noteRepository.findAll();
+        return coalesce("all", () -> findAllDetached(noteRepository.findAllIds()));
+    }
+
+    @Override
+    public List<NoteSummary> getAllNonArchivedNoteSummaries() {
+        return coalesce("summaries:archived=false", () -> noteRepository.findAllSummariesByArchived(false));
     }
 
     @Override
+    public List<NoteSummary> getAllNoteSummaries() {
+        return coalesce("summaries", noteRepository::findAllSummaries);
+    }
+
+    @Override
+    public NotePage getNonArchivedNotesPage(Long afterId, int limit) {
+        int pageSize = pageSize(limit);
+        return coalesce("page:archived=false:" + afterId(afterId) + ":" + pageSize,
+            () -> toPage(noteRepository.findIdsByArchivedAfter(false, afterId(afterId), Limit.of(pageSize)), pageSize));
+    }
+
+    @Override
+    public NotePage getNotesPage(Long afterId, int limit) {
+        int pageSize = pageSize(limit);
+        return coalesce("page:" + afterId(afterId) + ":" + pageSize,
+            () -> toPage(noteRepository.findIdsAfter(afterId(afterId), Limit.of(pageSize)), pageSize));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportNotes(Consumer<Note> consumer) {
+        // the stream keeps the cursor open until the last note is consumed
+        try (Stream<Long> ids = noteRepository.streamAllIds()) {
+            entityCacheBatchLoader.forEachById(Note.class, ids, consumer, NoteContent.class);
+        }
+    }
+
+    @Override
+    @Transactional
     public void updateNoteById(Long id, Note note) {
+        // the note is managed until commit, dirty checking writes the changes without a save and its merge
         Optional<Note> existingNote = noteRepository.findById(id);
         if (existingNote.isPresent()) {
             Note currentNote = existingNote.get();
+            invalidateTitleOnCommit(currentNote, note.getTitle());
             currentNote.setTitle(note.getTitle());
             currentNote.setContent(note.getContent());
             currentNote.setArchived(note.getArchived());
-            noteRepository.save(currentNote);
         }
     }
 
     @Override
+    @Transactional
+    public void patchNoteById(Long id, NotePatch patch) {
+        noteRepository.findById(id).ifPresent(currentNote -> {
+            if (patch.title() != null) {
+                invalidateTitleOnCommit(currentNote, patch.title());
+                currentNote.setTitle(patch.title());
+            }
+            if (patch.content() != null) {
+                currentNote.setContent(patch.content());
+            }
+            if (patch.archived() != null) {
+                currentNote.setArchived(patch.archived());
+            }
+        });
+    }
+
+    @Override
+    @Transactional
     public void archiveNoteById(Long id) {
-        Optional<Note> existingNote = noteRepository.findById(id);
-        if (existingNote.isPresent()) {
-            Note currentNote = existingNote.get();
-            currentNote.setArchived(true);
-            noteRepository.save(currentNote);
+        archiveNotesByIds(List.of(id));
+    }
+
+    @Override
+    @Transactional
+    public void archiveNotesByIds(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
         }
+        // only the archived flag changes, so the other notes stay cached. every cached query of notes is stale, as
+        // evicting just the archived-filtered ones would let a query that ran before the commit cache its result after it
+        entityCacheEvictor.evictOnCompletion(Note.class, ids);
+        noteRepository.archiveAllById(ids);
     }
 
     @Override
     public void deleteNoteById(Long id) {
+        // the id filter keeps the id until its next rebuild, the negative cache answers lookups of it until then
         noteRepository.deleteById(id);
+        noteNegativeCache.putDeleted(idKey(id));
+    }
+
+    // concurrent reads of the same key share one load. The read-only transaction only starts in the loader,
+    // so callers waiting for it don't hold a database connection
+    private <T> T coalesce(String key, Supplier<T> loader) {
+        return singleFlight.execute("notes:" + key, () -> {
+            TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+            transaction.setReadOnly(true);
+            return transaction.execute(status -> loader.get());
+        });
+    }
+
+    // only asked on a cache miss, a cached note costs no negative cache read
+    private Note findUnlessMissing(String key, Supplier<Optional<Note>> lookup) {
+        if (noteNegativeCache.isMissing(key)) {
+            return null;
+        }
+        return findRememberingMiss(key, lookup);
+    }
+
+    private Note findRememberingMiss(String key, Supplier<Optional<Note>> lookup) {
+        Note note = lookup.get().orElse(null);
+        if (note == null) {
+            noteNegativeCache.putMissing(key);
+        } else {
+            detachWithContent(note);
+        }
+        return note;
+    }
+
+    // the contents were resolved with the notes, detaching leaves none of them to load
+    private List<Note> findAllDetached(List<Long> ids) {
+        List<Note> notes = findAllWithContent(ids);
+        notes.forEach(entityManager::detach);
+        return notes;
+    }
+
+    // a coalesced note is shared with callers on other threads and outlives the transaction, it must not stay
+    // managed by the entity manager of the caller that loaded it, open until the end of that caller's request.
+    // a single note is returned with its content, which is read from its region before the session is left
+    private void detachWithContent(Note note) {
+        Hibernate.initialize(note.getNoteContent());
+        entityManager.detach(note);
+    }
+
+    // the contents first, the notes then find theirs in the session instead of loading them one by one when read
+    private List<Note> findAllWithContent(List<Long> ids) {
+        entityCacheBatchLoader.findAllById(NoteContent.class, ids);
+        return entityCacheBatchLoader.findAllById(Note.class, ids);
+    }
+
+    // a lookup of the new title may have cached that there's no such note
+    private void invalidateTitleOnCommit(Note currentNote, String title) {
+        if (!Objects.equals(currentNote.getTitle(), title)) {
+            afterCommit(() -> noteNegativeCache.invalidate(List.of(titleKey(title))));
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                // the transaction is committed, failing here would only turn its response into an error
+                try {
+                    action.run();
+                } catch (RuntimeException e) {
+                    log.warn("Could not update the id filter or negative cache after commit, lookups may answer "
+                        + "not found until the filter is rebuilt or the stored misses expire", e);
+                }
+            }
+        });
+    }
+
+    static String idKey(Long id) {
+        return "id:" + id;
+    }
+
+    static String titleKey(String title) {
+        return "title:" + title;
+    }
+
+    private NotePage toPage(List<Long> ids, int pageSize) {
+        Long nextAfterId = ids.size() < pageSize ? null : ids.get(ids.size() - 1);
+        return new NotePage(findAllDetached(ids), nextAfterId);
+    }
+
+    private static int pageSize(int limit) {
+        return Math.clamp(limit, 1, MAX_PAGE_SIZE);
+    }
+
+    private static long afterId(Long afterId) {
+        return afterId == null ? 0L : afterId;
     }
 }
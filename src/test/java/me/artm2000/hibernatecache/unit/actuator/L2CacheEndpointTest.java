@@ -0,0 +1,197 @@
+package me.artm2000.hibernatecache.unit.actuator;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import me.artm2000.hibernatecache.common.actuator.L2CacheEndpoint;
+import me.artm2000.hibernatecache.common.cache.MeteredStorageAccess;
+import me.artm2000.hibernatecache.common.cache.RegionWarmer;
+import org.hibernate.cache.spi.CacheImplementor;
+import org.hibernate.cache.spi.Region;
+import org.hibernate.cache.spi.TimestampsCache;
+import org.hibernate.cache.spi.TimestampsRegion;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.metamodel.spi.MappingMetamodelImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Answers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.redisson.api.RMapCache;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class L2CacheEndpointTest {
+
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+
+    @Mock
+    private CacheImplementor cache;
+
+    @Mock
+    private TimestampsCache timestampsCache;
+
+    @Mock
+    private TimestampsRegion timestampsRegion;
+
+    @Mock
+    private Region entityRegion;
+
+    @Mock
+    private MappingMetamodelImplementor mappingMetamodel;
+
+    @Mock(answer = Answers.RETURNS_DEEP_STUBS)
+    private EntityPersister persister;
+
+    @Mock
+    private RedissonClient redissonClient;
+
+    @Mock
+    private RMapCache<Object, Object> mapCache;
+
+    @Mock
+    private ObjectProvider<MeterRegistry> meterRegistryProvider;
+
+    @Mock
+    private RegionWarmer warmer;
+
+    // copying the annotations of the session factory interfaces fails on some of them
+    private final SessionFactoryImplementor sessionFactory = mock(SessionFactoryImplementor.class, withSettings().withoutAnnotations());
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private L2CacheEndpoint endpoint;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        when(entityManagerFactory.unwrap(SessionFactoryImplementor.class)).thenReturn(sessionFactory);
+        when(sessionFactory.getCache()).thenReturn(cache);
+        when(sessionFactory.getMappingMetamodel()).thenReturn(mappingMetamodel);
+        when(cache.getCacheRegionNames()).thenReturn(Set.of("entity.notes"));
+        when(cache.getRegion("entity.notes")).thenReturn(entityRegion);
+        when(cache.getTimestampsCache()).thenReturn(timestampsCache);
+        when(timestampsCache.getRegion()).thenReturn(timestampsRegion);
+        when(timestampsRegion.getName()).thenReturn("default-update-timestamps-region");
+        when(entityRegion.getName()).thenReturn("entity.notes");
+        when(redissonClient.getMapCache(any(String.class))).thenReturn(mapCache);
+        when(meterRegistryProvider.getIfAvailable()).thenReturn(registry);
+        when(warmer.regions()).thenReturn(Set.of("entity.notes"));
+
+        when(persister.canWriteToCache()).thenReturn(true);
+        when(persister.getCacheAccessStrategy().getRegion().getName()).thenReturn("entity.notes");
+        when(persister.getEntityName()).thenReturn("Note");
+        when(persister.getRootEntityName()).thenReturn("Note");
+        doAnswer(invocation -> {
+            invocation.<Consumer<EntityPersister>>getArgument(0).accept(persister);
+            return null;
+        }).when(mappingMetamodel).forEachEntityDescriptor(any());
+
+        endpoint = new L2CacheEndpoint(entityManagerFactory, redissonClient, meterRegistryProvider, List.of(warmer));
+    }
+
+    @Test
+    void regions_ShouldDescribeEveryRegionWithTimestamps() {
+        // Given
+        when(mapCache.size()).thenReturn(10);
+        when(mapCache.sizeInMemory()).thenReturn(2048L);
+        registry.counter(MeteredStorageAccess.GETS, "region", "entity.notes", "result", "hit").increment(3);
+        registry.counter(MeteredStorageAccess.GETS, "region", "entity.notes", "result", "miss").increment(1);
+
+        // When
+        List<L2CacheEndpoint.RegionDescriptor> regions = endpoint.regions().regions();
+
+        // Then
+        assertThat(regions).extracting(L2CacheEndpoint.RegionDescriptor::name)
+            .containsExactly("entity.notes", "default-update-timestamps-region");
+        L2CacheEndpoint.RegionDescriptor notes = regions.get(0);
+        assertThat(notes.type()).isEqualTo("domain");
+        assertThat(notes.entries()).isEqualTo(10);
+        assertThat(notes.memoryBytes()).isEqualTo(2048);
+        assertThat(notes.hitRatio()).isEqualTo(0.75);
+        assertThat(notes.warmable()).isTrue();
+        assertThat(regions.get(1).type()).isEqualTo("timestamps");
+        assertThat(regions.get(1).hitRatio()).isNull();
+    }
+
+    @Test
+    void region_WhenUnknown_ShouldReturnNull() {
+        // When / Then
+        assertThat(endpoint.region("nope")).isNull();
+    }
+
+    @Test
+    void evictRegion_ShouldClearIt() {
+        // When
+        endpoint.evictRegion("entity.notes");
+
+        // Then
+        verify(entityRegion).clear();
+        verify(cache, never()).evictQueryRegions();
+    }
+
+    @Test
+    void evictRegion_OfTimestamps_ShouldEvictQueryRegionsFirst() {
+        // When
+        endpoint.evictRegion("default-update-timestamps-region");
+
+        // Then
+        var order = inOrder(cache, timestampsRegion);
+        order.verify(cache).evictQueryRegions();
+        order.verify(timestampsRegion).clear();
+    }
+
+    @Test
+    void evictRegion_WhenUnknown_ShouldRejectRequest() {
+        // When / Then
+        assertThatThrownBy(() -> endpoint.evictRegion("nope")).isInstanceOf(InvalidEndpointRequestException.class);
+    }
+
+    @Test
+    void evictEntity_ShouldEvictParsedId() {
+        // Given
+        when(persister.getIdentifierMapping().getJavaType().fromString("42")).thenReturn(42L);
+
+        // When
+        endpoint.evictEntity("entity.notes", "42");
+
+        // Then
+        verify(cache).evictEntityData("Note", 42L);
+    }
+
+    @Test
+    void evictEntity_OfRegionWithoutEntity_ShouldRejectRequest() {
+        // When / Then
+        assertThatThrownBy(() -> endpoint.evictEntity("query.findAllNotes", "42"))
+            .isInstanceOf(InvalidEndpointRequestException.class);
+        verify(cache, never()).evictEntityData(any(String.class), any());
+    }
+
+    @Test
+    void warmUp_ShouldRunWarmerOfRegion() {
+        // Given
+        when(warmer.warmUp("entity.notes")).thenReturn(50L);
+
+        // When
+        L2CacheEndpoint.WarmUpResult result = endpoint.warmUp("entity.notes");
+
+        // Then
+        assertThat(result.loaded()).isEqualTo(50);
+        assertThatThrownBy(() -> endpoint.warmUp("query.findNotesPage")).isInstanceOf(InvalidEndpointRequestException.class);
+    }
+}
@@ -0,0 +1,163 @@
+package me.artm2000.hibernatecache.unit.cache;
+
+import jakarta.persistence.EntityManager;
+import me.artm2000.hibernatecache.common.cache.EntityCacheEvictor;
+import me.artm2000.hibernatecache.database.entity.Note;
+import org.hibernate.cache.internal.TimestampsCacheEnabledImpl;
+import org.hibernate.cache.spi.CacheImplementor;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cache.spi.TimestampsCache;
+import org.hibernate.cache.spi.TimestampsRegion;
+import org.hibernate.cache.spi.access.EntityDataAccess;
+import org.hibernate.cache.spi.access.SoftLock;
+import org.hibernate.engine.spi.SessionEventListenerManager;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.event.spi.EventManager;
+import org.hibernate.metamodel.spi.MappingMetamodelImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.stat.spi.StatisticsImplementor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class EntityCacheEvictorTest {
+
+    private static final Set<String> NOTES = Set.of("notes");
+
+    @Mock
+    private EntityManager entityManager;
+
+    // some of the annotations of Hibernate's session interfaces aren't on the test classpath
+    private final SessionImplementor session = mock(SessionImplementor.class, withSettings().withoutAnnotations());
+    private final SessionFactoryImplementor factory = mock(SessionFactoryImplementor.class, withSettings().withoutAnnotations());
+
+    @Mock
+    private EntityPersister persister;
+
+    @Mock
+    private EntityDataAccess cacheAccess;
+
+    @Mock
+    private SoftLock softLock;
+
+    @Mock
+    private RegionFactory regionFactory;
+
+    @Mock
+    private TimestampsRegion timestampsRegion;
+
+    private final AtomicLong clock = new AtomicLong(1000);
+    private final Map<Object, Object> lastUpdates = new ConcurrentHashMap<>();
+    private TimestampsCache timestamps;
+    private EntityCacheEvictor evictor;
+
+    @BeforeEach
+    void setUp() {
+        MappingMetamodelImplementor metamodel = mock();
+        CacheImplementor cache = mock();
+        when(entityManager.unwrap(SessionImplementor.class)).thenReturn(session);
+        when(session.getFactory()).thenReturn(factory);
+        when(session.getEventManager()).thenReturn(mock(EventManager.class));
+        when(session.getEventListenerManager()).thenReturn(mock(SessionEventListenerManager.class));
+        when(factory.getMappingMetamodel()).thenReturn(metamodel);
+        when(factory.getStatistics()).thenReturn(mock(StatisticsImplementor.class));
+        when(factory.getCache()).thenReturn(cache);
+        when(metamodel.getEntityDescriptor(Note.class)).thenReturn(persister);
+        when(persister.canWriteToCache()).thenReturn(true);
+        when(persister.getCacheAccessStrategy()).thenReturn(cacheAccess);
+        when(persister.getSynchronizedQuerySpaces()).thenReturn(new String[]{"notes"});
+        when(cacheAccess.generateCacheKey(1L, persister, factory, null)).thenReturn("notes#1");
+        when(cacheAccess.lockItem(session, "notes#1", null)).thenReturn(softLock);
+
+        // Hibernate's own timestamps cache, over a region held in a map
+        when(regionFactory.nextTimestamp()).thenAnswer(invocation -> clock.incrementAndGet());
+        when(regionFactory.getTimeout()).thenReturn(60_000L);
+        doAnswer(invocation -> lastUpdates.put(invocation.getArgument(0), invocation.getArgument(1)))
+            .when(timestampsRegion).putIntoCache(any(), any(), any());
+        when(timestampsRegion.getFromCache(any(), any())).thenAnswer(invocation -> lastUpdates.get(invocation.getArgument(0)));
+        timestamps = new TimestampsCacheEnabledImpl(timestampsRegion);
+        when(cache.getRegionFactory()).thenReturn(regionFactory);
+        when(cache.getTimestampsCache()).thenReturn(timestamps);
+
+        evictor = new EntityCacheEvictor(entityManager);
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    private static void complete(int status) {
+        TransactionSynchronizationManager.getSynchronizations().forEach(synchronization -> {
+            if (status == TransactionSynchronization.STATUS_COMMITTED) {
+                synchronization.afterCommit();
+            }
+            synchronization.afterCompletion(status);
+        });
+    }
+
+    @Test
+    void evictOnCompletion_ShouldLockEntriesUntilCompletion() {
+        // When
+        evictor.evictOnCompletion(Note.class, List.of(1L));
+
+        // Then
+        verify(cacheAccess).lockItem(session, "notes#1", null);
+        verify(cacheAccess, never()).unlockItem(any(), any(), any());
+
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+        verify(cacheAccess).unlockItem(session, "notes#1", softLock);
+    }
+
+    @Test
+    void evictOnCompletion_WithReaderInterleaved_ShouldRejectQueryResultReadBeforeCommit() {
+        // Given a reader that starts before the archive, reads the ids and caches them only after the commit
+        long readerStarted = regionFactory.nextTimestamp();
+
+        // When
+        evictor.evictOnCompletion(Note.class, List.of(1L));
+        long readDuringUpdate = regionFactory.nextTimestamp();
+        boolean upToDateDuringUpdate = timestamps.isUpToDate(NOTES, readDuringUpdate, session);
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+        long readAfterCommit = regionFactory.nextTimestamp();
+
+        // Then
+        assertThat(upToDateDuringUpdate).isFalse();
+        assertThat(timestamps.isUpToDate(NOTES, readerStarted, session)).isFalse();
+        assertThat(timestamps.isUpToDate(NOTES, readDuringUpdate, session)).isFalse();
+        assertThat(timestamps.isUpToDate(NOTES, readAfterCommit, session)).isTrue();
+    }
+
+    @Test
+    void evictOnCompletion_WhenRolledBack_ShouldStillEndPreInvalidation() {
+        // When
+        evictor.evictOnCompletion(Note.class, List.of(1L));
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+        long readAfterRollback = regionFactory.nextTimestamp();
+
+        // Then
+        verify(cacheAccess).unlockItem(session, "notes#1", softLock);
+        assertThat(timestamps.isUpToDate(NOTES, readAfterRollback, session)).isTrue();
+    }
+}
@@ -0,0 +1,113 @@
+package me.artm2000.hibernatecache.unit.cache;
+
+import io.netty.buffer.ByteBuf;
+import me.artm2000.hibernatecache.common.cache.HibernateKryoCodec;
+import me.artm2000.hibernatecache.database.entity.Note;
+import org.junit.jupiter.api.Test;
+import org.redisson.client.codec.Codec;
+import org.redisson.client.handler.State;
+import org.redisson.codec.Kryo5Codec;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.lang.reflect.Constructor;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+
+class HibernateKryoCodecTest {
+
+    private final HibernateKryoCodec codec = new HibernateKryoCodec();
+
+    @Test
+    void roundTrip_WithCachedEntityEntry_ShouldKeepDisassembledState() throws Exception {
+        // Given
+        Object entry = cachedNoteEntry();
+
+        // When
+        Object decoded = decode(codec, encode(codec, entry));
+
+        // Then
+        assertThat(decoded).isInstanceOf(entry.getClass());
+        assertThat(decoded).usingRecursiveComparison().isEqualTo(entry);
+    }
+
+    @Test
+    void encode_WithCachedEntityEntry_ShouldBeSmallerThanDefaultCodec() throws Exception {
+        // Given
+        Object entry = cachedNoteEntry();
+
+        // When
+        int registeredSize = encode(codec, entry).readableBytes();
+        int defaultSize = encode(new Kryo5Codec(), entry).readableBytes();
+
+        // Then
+        assertThat(registeredSize).isLessThan(defaultSize);
+    }
+
+    @Test
+    void roundTrip_WithNote_ShouldReturnEqualNote() throws IOException {
+        // Given
+        Note note = new Note();
+        note.setId(1L);
+        note.setTitle("Test Note");
+        note.setContent("Test Content");
+        note.setArchived(true);
+
+        // When
+        Object decoded = decode(codec, encode(codec, note));
+
+        // Then
+        assertThat(decoded).isEqualTo(note);
+    }
+
+    @Test
+    void roundTrip_WithUnregisteredClass_ShouldFallBackToClassName() throws IOException {
+        // Given
+        Map<String, Integer> value = new HashMap<>(Map.of("a", 1, "b", 2));
+
+        // When
+        Object decoded = decode(codec, encode(codec, value));
+
+        // Then
+        assertThat(decoded).isEqualTo(value);
+    }
+
+    @Test
+    void registeredClasses_ShouldAllBeLoadable() {
+        for (String className : HibernateKryoCodec.REGISTERED_CLASSES) {
+            assertThatCode(() -> Class.forName(className)).doesNotThrowAnyException();
+        }
+    }
+
+    private static ByteBuf encode(Codec codec, Object value) throws IOException {
+        return codec.getValueEncoder().encode(value);
+    }
+
+    private static Object decode(Codec codec, ByteBuf buf) throws IOException {
+        try {
+            return codec.getValueDecoder().decode(buf, new State());
+        } finally {
+            buf.release();
+        }
+    }
+
+    private static Object cachedNoteEntry() throws Exception {
+        Constructor<?> cacheEntry = Class.forName("org.hibernate.cache.spi.entry.StandardCacheEntryImpl")
+            .getDeclaredConstructor(Serializable[].class, String.class, Object.class);
+        cacheEntry.setAccessible(true);
+        Object state = cacheEntry.newInstance(
+            // archived, noteContent, title, version: the content is an entry of its own
+            new Serializable[]{false, null, "Test Note", 0L},
+            Note.class.getName(),
+            0L
+        );
+
+        Constructor<?> item = Class.forName("org.hibernate.cache.spi.support.AbstractReadWriteAccess$Item")
+            .getDeclaredConstructor(Object.class, Object.class, long.class);
+        item.setAccessible(true);
+        return item.newInstance(state, 0L, 42L);
+    }
+}
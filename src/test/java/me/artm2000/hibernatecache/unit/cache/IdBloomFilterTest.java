@@ -0,0 +1,296 @@
+package me.artm2000.hibernatecache.unit.cache;
+
+import me.artm2000.hibernatecache.common.cache.IdBloomFilter;
+import me.artm2000.hibernatecache.common.cache.RedisCircuitBreaker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.redisson.api.RAtomicLong;
+import org.redisson.api.RBloomFilter;
+import org.redisson.api.RLock;
+import org.redisson.api.RMap;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.RedisConnectionException;
+import org.redisson.client.codec.LongCodec;
+import org.redisson.client.codec.StringCodec;
+import org.redisson.misc.CompletableFutureWrapper;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class IdBloomFilterTest {
+
+    @Mock
+    private RedissonClient redisson;
+
+    @Mock
+    private RMap<String, String> generations;
+
+    @Mock
+    private RBloomFilter<Long> currentFilter;
+
+    @Mock
+    private RBloomFilter<Long> previousFilter;
+
+    @Mock
+    private RBloomFilter<Long> nextFilter;
+
+    @Mock
+    private RLock lock;
+
+    @Mock
+    private RAtomicLong generation;
+
+    private IdBloomFilter idFilter;
+    private Clock clock;
+
+    @BeforeEach
+    void setUp() {
+        when(redisson.<String, String>getMap("notes:ids", StringCodec.INSTANCE)).thenReturn(generations);
+        when(redisson.<Long>getBloomFilter("notes:ids:1", LongCodec.INSTANCE)).thenReturn(previousFilter);
+        when(redisson.<Long>getBloomFilter("notes:ids:2", LongCodec.INSTANCE)).thenReturn(currentFilter);
+        when(redisson.<Long>getBloomFilter("notes:ids:3", LongCodec.INSTANCE)).thenReturn(nextFilter);
+        when(redisson.getLock("notes:ids:rebuild")).thenReturn(lock);
+        when(redisson.getAtomicLong("notes:ids:generation")).thenReturn(generation);
+        when(generation.incrementAndGet()).thenReturn(3L);
+
+        clock = Clock.fixed(Instant.EPOCH, ZoneOffset.UTC);
+        idFilter = new IdBloomFilter(redisson, "notes:ids", 1000, 0.01, Duration.ofSeconds(10), clock);
+    }
+
+    @Test
+    void mightContain_WithoutGeneration_ShouldReturnTrue() {
+        // Given
+        when(generations.get("current")).thenReturn(null);
+
+        // When / Then
+        assertThat(idFilter.mightContain(42L)).isTrue();
+    }
+
+    @Test
+    void mightContain_ShouldAskCurrentGenerationAndCacheItsName() {
+        // Given
+        when(generations.get("current")).thenReturn("notes:ids:2");
+        when(currentFilter.contains(42L)).thenReturn(false);
+        when(currentFilter.contains(7L)).thenReturn(true);
+
+        // When / Then
+        assertThat(idFilter.mightContain(42L)).isFalse();
+        assertThat(idFilter.mightContain(7L)).isTrue();
+        verify(generations, times(1)).get("current");
+    }
+
+    @Test
+    void mightContainAsync_WithoutGeneration_ShouldCompleteTrue() {
+        // Given
+        when(generations.getAsync("current")).thenReturn(new CompletableFutureWrapper<>((String) null));
+
+        // When / Then
+        assertThat(idFilter.mightContainAsync(42L).toCompletableFuture().join()).isTrue();
+    }
+
+    @Test
+    void mightContainAsync_ShouldAskCurrentGenerationAndCacheItsName() {
+        // Given
+        when(generations.getAsync("current")).thenReturn(new CompletableFutureWrapper<>("notes:ids:2"));
+        when(currentFilter.containsAsync(42L)).thenReturn(new CompletableFutureWrapper<>(false));
+        when(currentFilter.containsAsync(7L)).thenReturn(new CompletableFutureWrapper<>(true));
+
+        // When / Then
+        assertThat(idFilter.mightContainAsync(42L).toCompletableFuture().join()).isFalse();
+        assertThat(idFilter.mightContainAsync(7L).toCompletableFuture().join()).isTrue();
+        verify(generations, times(1)).getAsync("current");
+        verify(currentFilter, never()).contains(anyLong());
+    }
+
+    @Test
+    void add_ShouldWriteToEveryLiveGeneration() {
+        // Given
+        when(generations.readAllMap()).thenReturn(Map.of("previous", "notes:ids:1", "current", "notes:ids:2", "next", "notes:ids:3"));
+
+        // When
+        idFilter.add(List.of(5L, 6L));
+
+        // Then
+        verify(previousFilter).add(List.of(5L, 6L));
+        verify(currentFilter).add(List.of(5L, 6L));
+        verify(nextFilter).add(List.of(5L, 6L));
+    }
+
+    @Test
+    void mightContain_WhenRedisFails_ShouldReturnTrue() {
+        // Given
+        when(generations.getAsync("current")).thenReturn(new CompletableFutureWrapper<>(new RedisConnectionException("Redis is down")));
+        RedisCircuitBreaker breaker = new RedisCircuitBreaker(50, 5, 10, () -> CompletableFuture.completedFuture(true));
+        IdBloomFilter guarded = new IdBloomFilter(redisson, "notes:ids", 1000, 0.01, Duration.ofSeconds(10), clock, breaker);
+
+        try {
+            // When / Then
+            assertThat(guarded.mightContain(42L)).isTrue();
+            assertThat(guarded.mightContainAsync(42L).toCompletableFuture().join()).isTrue();
+        } finally {
+            breaker.close();
+        }
+    }
+
+    @Test
+    void add_WhenRedisFails_ShouldAddIdsOnceItRecovers() {
+        // Given
+        AtomicBoolean redisUp = new AtomicBoolean(false);
+        when(generations.readAllMapAsync()).thenReturn(new CompletableFutureWrapper<>(new RedisConnectionException("Redis is down")));
+        when(generations.readAllMap()).thenReturn(Map.of("current", "notes:ids:2"));
+        RedisCircuitBreaker breaker = new RedisCircuitBreaker(50, 5, 10, () -> redisUp.get()
+            ? CompletableFuture.completedFuture(true)
+            : CompletableFuture.failedFuture(new RedisConnectionException("Redis is down")));
+        IdBloomFilter guarded = new IdBloomFilter(redisson, "notes:ids", 1000, 0.01, Duration.ofSeconds(10), clock, breaker);
+
+        try {
+            // When
+            guarded.add(List.of(5L));
+            boolean openWhileDown = breaker.isOpen();
+            redisUp.set(true);
+
+            // Then
+            assertThat(openWhileDown).isTrue();
+            verify(currentFilter, timeout(2000)).add(List.of(5L));
+        } finally {
+            breaker.close();
+        }
+    }
+
+    @Test
+    void add_WithNoIds_ShouldNotTouchRedis() {
+        // When
+        idFilter.add(List.of());
+
+        // Then
+        verifyNoInteractions(generations);
+    }
+
+    @Test
+    void needsRebuild_WithoutGeneration_ShouldReturnTrue() {
+        // Given
+        when(generations.get("current")).thenReturn(null);
+
+        // When / Then
+        assertThat(idFilter.needsRebuild()).isTrue();
+    }
+
+    @Test
+    void needsRebuild_ShouldCompareSizingAndCount() {
+        // Given
+        when(generations.get("current")).thenReturn("notes:ids:2");
+        when(currentFilter.isExists()).thenReturn(true);
+        when(currentFilter.getExpectedInsertions()).thenReturn(1000L);
+        when(currentFilter.getFalseProbability()).thenReturn(0.01);
+        when(currentFilter.count()).thenReturn(900L);
+
+        // When / Then
+        assertThat(idFilter.needsRebuild()).isFalse();
+
+        when(currentFilter.count()).thenReturn(1001L);
+        assertThat(idFilter.needsRebuild()).isTrue();
+
+        when(currentFilter.count()).thenReturn(900L);
+        when(currentFilter.getExpectedInsertions()).thenReturn(500L);
+        assertThat(idFilter.needsRebuild()).isTrue();
+    }
+
+    @Test
+    void rebuild_ShouldFillNextGenerationBeforeSwitchingToIt() {
+        // Given
+        when(lock.tryLock()).thenReturn(true);
+        when(generations.readAllMap()).thenReturn(Map.of("previous", "notes:ids:1", "current", "notes:ids:2"));
+
+        // When
+        boolean rebuilt = idFilter.rebuild(() -> LongStream.rangeClosed(1, 1500).boxed());
+
+        // Then
+        assertThat(rebuilt).isTrue();
+        var order = inOrder(generations, previousFilter, nextFilter, lock);
+        order.verify(generations).fastRemove("previous");
+        order.verify(previousFilter).expire(Duration.ofSeconds(10));
+        order.verify(nextFilter).tryInit(1000, 0.01);
+        order.verify(generations).fastPut("next", "notes:ids:3");
+        order.verify(nextFilter, times(2)).add(anyList());
+        order.verify(generations).fastPut("previous", "notes:ids:2");
+        order.verify(generations).putAll(Map.of("current", "notes:ids:3", "switchedAt", "0"));
+        order.verify(generations).fastRemove("next");
+        order.verify(lock).unlock();
+        verify(currentFilter, never()).delete();
+        verify(currentFilter, never()).expire(any(Duration.class));
+
+        // the rebuilding node reads the new generation right away
+        when(nextFilter.contains(9999L)).thenReturn(false);
+        assertThat(idFilter.mightContain(9999L)).isFalse();
+        verify(generations, never()).get("current");
+    }
+
+    @Test
+    void rebuild_WhenAnotherNodeHoldsTheLock_ShouldReturnFalse() {
+        // Given
+        when(lock.tryLock()).thenReturn(false);
+
+        // When
+        boolean rebuilt = idFilter.rebuild(Stream::empty);
+
+        // Then
+        assertThat(rebuilt).isFalse();
+        verifyNoInteractions(generations);
+        verify(lock, never()).unlock();
+    }
+
+    @Test
+    void rebuild_WithinRefreshIntervalOfLastSwitch_ShouldKeepGenerations() {
+        // Given
+        when(lock.tryLock()).thenReturn(true);
+        when(generations.readAllMap()).thenReturn(Map.of("previous", "notes:ids:1", "current", "notes:ids:2", "switchedAt", "0"));
+
+        // When
+        boolean rebuilt = idFilter.rebuild(Stream::empty);
+
+        // Then
+        assertThat(rebuilt).isFalse();
+        verify(previousFilter, never()).expire(any(Duration.class));
+        verify(generations, never()).fastRemove(any());
+        verify(lock).unlock();
+    }
+
+    @Test
+    void rebuild_WhenReadingIdsFails_ShouldDropNextGenerationAndKeepCurrent() {
+        // Given
+        when(lock.tryLock()).thenReturn(true);
+        when(generations.readAllMap()).thenReturn(Map.of("current", "notes:ids:2"));
+
+        // When / Then
+        assertThatThrownBy(() -> idFilter.rebuild(() -> {
+            throw new IllegalStateException("connection lost");
+        })).isInstanceOf(IllegalStateException.class);
+
+        verify(generations).fastRemove("next");
+        verify(nextFilter).expire(Duration.ofSeconds(10));
+        verify(generations, never()).putAll(any());
+        verify(lock).unlock();
+    }
+}
@@ -0,0 +1,85 @@
+package me.artm2000.hibernatecache.unit.cache;
+
+import org.redisson.api.RFuture;
+import org.redisson.api.RMapCache;
+import org.redisson.misc.CompletableFutureWrapper;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anySet;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * In-process stand-in for a Redis map cache: answers the async calls from a local map, each after the injected
+ * latency, or fails them while Redis is down.
+ */
+class LatentMapCache {
+    private final ConcurrentMap<Object, Object> entries = new ConcurrentHashMap<>();
+    private final RMapCache<Object, Object> mapCache;
+    private volatile long latencyMillis;
+    private volatile boolean down;
+
+    @SuppressWarnings("unchecked")
+    LatentMapCache(String name) {
+        mapCache = mock(RMapCache.class);
+        when(mapCache.getName()).thenReturn(name);
+        when(mapCache.getAsync(any())).thenAnswer(invocation -> respond(() -> entries.get(invocation.getArgument(0))));
+        when(mapCache.getWithTTLOnlyAsync(any())).thenAnswer(invocation -> respond(() -> entries.get(invocation.getArgument(0))));
+        when(mapCache.containsKeyAsync(any())).thenAnswer(invocation -> respond(() -> entries.containsKey(invocation.getArgument(0))));
+        when(mapCache.getAllAsync(anySet())).thenAnswer(invocation -> respond(() -> {
+            Map<Object, Object> found = new HashMap<>();
+            for (Object key : invocation.<Set<Object>>getArgument(0)) {
+                if (entries.containsKey(key)) {
+                    found.put(key, entries.get(key));
+                }
+            }
+            return found;
+        }));
+        when(mapCache.fastPutAsync(any(), any(), anyLong(), any(TimeUnit.class), anyLong(), any(TimeUnit.class)))
+            .thenAnswer(invocation -> respond(() -> entries.put(invocation.getArgument(0), invocation.getArgument(1)) == null));
+        when(mapCache.fastRemoveAsync(any())).thenAnswer(invocation -> respond(() -> entries.remove(invocation.getArgument(0)) == null ? 0L : 1L));
+        when(mapCache.deleteAsync()).thenAnswer(invocation -> respond(() -> {
+            boolean deleted = !entries.isEmpty();
+            entries.clear();
+            return deleted;
+        }));
+    }
+
+    RMapCache<Object, Object> mapCache() {
+        return mapCache;
+    }
+
+    Map<Object, Object> entries() {
+        return entries;
+    }
+
+    void latency(long millis) {
+        latencyMillis = millis;
+    }
+
+    void down(boolean down) {
+        this.down = down;
+    }
+
+    private <T> RFuture<T> respond(Supplier<T> command) {
+        CompletableFuture<T> response = new CompletableFuture<>();
+        CompletableFuture.delayedExecutor(latencyMillis, TimeUnit.MILLISECONDS).execute(() -> {
+            if (down) {
+                response.completeExceptionally(new IllegalStateException("Redis is down"));
+            } else {
+                response.complete(command.get());
+            }
+        });
+        return new CompletableFutureWrapper<>(response);
+    }
+}
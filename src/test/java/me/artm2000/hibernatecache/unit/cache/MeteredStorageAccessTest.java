@@ -0,0 +1,135 @@
+package me.artm2000.hibernatecache.unit.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import me.artm2000.hibernatecache.common.cache.BatchStorageAccess;
+import me.artm2000.hibernatecache.common.cache.MeteredStorageAccess;
+import me.artm2000.hibernatecache.common.cache.RegionBatch;
+import org.hibernate.cache.spi.support.DomainDataStorageAccess;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class MeteredStorageAccessTest {
+
+    @Mock
+    private BatchStorageAccess delegate;
+
+    @Mock
+    private RegionBatch delegateBatch;
+
+    @Mock
+    private SharedSessionContractImplementor session;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private MeteredStorageAccess storage;
+
+    @BeforeEach
+    void setUp() {
+        when(delegate.openBatch(session)).thenReturn(delegateBatch);
+        storage = new MeteredStorageAccess(delegate, registry, "entity.notes");
+    }
+
+    @Test
+    void getFromCache_ShouldCountHitsAndMissesAndTimeGets() {
+        // Given
+        when(delegate.getFromCache("k1", session)).thenReturn("v1");
+
+        // When
+        storage.getFromCache("k1", session);
+        storage.getFromCache("k1", session);
+        storage.getFromCache("k2", session);
+
+        // Then
+        assertThat(gets("hit")).isEqualTo(2);
+        assertThat(gets("miss")).isEqualTo(1);
+        assertThat(registry.get(MeteredStorageAccess.LATENCY).tags("region", "entity.notes", "operation", "get").timer().count())
+            .isEqualTo(3);
+    }
+
+    @Test
+    void putAndEvict_ShouldDelegateAndCount() {
+        // When
+        storage.putIntoCache("k1", "v1", session);
+        storage.putFromLoad("k2", "v2", session);
+        storage.evictData("k1");
+        storage.removeFromCache("k2", session);
+
+        // Then
+        verify(delegate).putIntoCache("k1", "v1", session);
+        verify(delegate).putFromLoad("k2", "v2", session);
+        verify(delegate).evictData("k1");
+        verify(delegate).removeFromCache("k2", session);
+        assertThat(registry.get(MeteredStorageAccess.PUTS).tag("region", "entity.notes").counter().count()).isEqualTo(2);
+        assertThat(registry.get(MeteredStorageAccess.EVICTIONS).tag("region", "entity.notes").counter().count()).isEqualTo(2);
+        assertThat(registry.get(MeteredStorageAccess.LATENCY).tags("operation", "put").timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    void getAllFromCache_ShouldCountEachKey() {
+        // Given
+        when(delegate.getAllFromCache(List.of("k1", "k2", "k3"))).thenReturn(Map.of("k1", "v1"));
+
+        // When
+        Map<Object, Object> values = storage.getAllFromCache(List.of("k1", "k2", "k3"));
+
+        // Then
+        assertThat(values).containsOnlyKeys("k1");
+        assertThat(gets("hit")).isEqualTo(1);
+        assertThat(gets("miss")).isEqualTo(2);
+        assertThat(registry.get(MeteredStorageAccess.LATENCY).tags("operation", "get_all").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void getAllFromCache_WithPlainDelegate_ShouldReadKeyByKey() {
+        // Given
+        DomainDataStorageAccess plain = mock(DomainDataStorageAccess.class);
+        when(plain.getFromCache("k1", null)).thenReturn("v1");
+        MeteredStorageAccess meteredPlain = new MeteredStorageAccess(plain, registry, "query.findAllNotes");
+
+        // When / Then
+        assertThat(meteredPlain.getAllFromCache(List.of("k1", "k2"))).isEqualTo(Map.of("k1", "v1"));
+        assertThat(meteredPlain.openBatch(session)).isSameAs(RegionBatch.NOOP);
+    }
+
+    @Test
+    void openBatch_ShouldTimePrefetchAndWriteBack() {
+        // When
+        try (RegionBatch batch = storage.openBatch(session)) {
+            batch.prefetch(List.of("k1"));
+        }
+
+        // Then
+        verify(delegateBatch).prefetch(List.of("k1"));
+        verify(delegateBatch).close();
+        assertThat(registry.get(MeteredStorageAccess.LATENCY).tags("operation", "get_all").timer().count()).isEqualTo(1);
+        assertThat(registry.get(MeteredStorageAccess.LATENCY).tags("operation", "put_all").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void release_ShouldRemoveMetersOfRegion() {
+        // When
+        storage.release();
+
+        // Then
+        verify(delegate).release();
+        assertThat(registry.find(MeteredStorageAccess.GETS).meters()).isEmpty();
+        assertThat(registry.find(MeteredStorageAccess.LATENCY).meters()).isEmpty();
+    }
+
+    private double gets(String result) {
+        return registry.get(MeteredStorageAccess.GETS).tags("region", "entity.notes", "result", result).counter().count();
+    }
+}
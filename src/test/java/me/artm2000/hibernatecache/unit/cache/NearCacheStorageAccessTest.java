@@ -0,0 +1,245 @@
+package me.artm2000.hibernatecache.unit.cache;
+
+import me.artm2000.hibernatecache.common.cache.BatchStorageAccess;
+import me.artm2000.hibernatecache.common.cache.NearCacheInvalidation;
+import me.artm2000.hibernatecache.common.cache.NearCacheStorageAccess;
+import me.artm2000.hibernatecache.common.cache.RegionBatch;
+import org.hibernate.cache.spi.access.SoftLock;
+import org.hibernate.cache.spi.support.DomainDataStorageAccess;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.redisson.api.RTopic;
+import org.redisson.api.listener.MessageListener;
+import org.redisson.api.listener.StatusListener;
+import org.redisson.misc.CompletableFutureWrapper;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class NearCacheStorageAccessTest {
+
+    @Mock
+    private DomainDataStorageAccess delegate;
+
+    @Mock
+    private RTopic topic;
+
+    private NearCacheStorageAccess storage;
+    private MessageListener<NearCacheInvalidation> messageListener;
+    private StatusListener statusListener;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        when(topic.addListener(eq(NearCacheInvalidation.class), any(MessageListener.class))).thenReturn(1);
+        when(topic.addListener(any(StatusListener.class))).thenReturn(2);
+        when(topic.publishAsync(any())).thenReturn(new CompletableFutureWrapper<>(1L));
+
+        storage = new NearCacheStorageAccess(delegate, topic, 100, 60_000);
+
+        ArgumentCaptor<MessageListener<NearCacheInvalidation>> messageCaptor = ArgumentCaptor.forClass(MessageListener.class);
+        verify(topic).addListener(eq(NearCacheInvalidation.class), messageCaptor.capture());
+        messageListener = messageCaptor.getValue();
+
+        ArgumentCaptor<StatusListener> statusCaptor = ArgumentCaptor.forClass(StatusListener.class);
+        verify(topic).addListener(statusCaptor.capture());
+        statusListener = statusCaptor.getValue();
+    }
+
+    @Test
+    void getFromCache_WhenLocalMiss_ShouldReadRedisOnceAndServeLocally() {
+        // Given
+        when(delegate.getFromCache("key", null)).thenReturn("value");
+
+        // When
+        Object first = storage.getFromCache("key", null);
+        Object second = storage.getFromCache("key", null);
+
+        // Then
+        assertThat(first).isEqualTo("value");
+        assertThat(second).isEqualTo("value");
+        verify(delegate, times(1)).getFromCache("key", null);
+    }
+
+    @Test
+    void getFromCache_WhenRedisMisses_ShouldNotCacheAbsence() {
+        // Given
+        when(delegate.getFromCache("key", null)).thenReturn(null);
+
+        // When
+        storage.getFromCache("key", null);
+        storage.getFromCache("key", null);
+
+        // Then
+        verify(delegate, times(2)).getFromCache("key", null);
+    }
+
+    @Test
+    void putIntoCache_ShouldWriteThroughAndPublishInvalidation() {
+        // Given
+        when(delegate.getFromCache("key", null)).thenReturn("old", "new");
+        storage.getFromCache("key", null);
+
+        // When
+        storage.putIntoCache("key", "new", null);
+
+        // Then
+        verify(delegate, times(1)).putIntoCache("key", "new", null);
+        ArgumentCaptor<NearCacheInvalidation> captor = ArgumentCaptor.forClass(NearCacheInvalidation.class);
+        verify(topic, times(1)).publishAsync(captor.capture());
+        assertThat(captor.getValue().key()).isEqualTo("key");
+        assertThat(storage.getFromCache("key", null)).isEqualTo("new");
+    }
+
+    @Test
+    void putFromLoad_ShouldNotPublishInvalidation() {
+        // When
+        storage.putFromLoad("key", "value", null);
+
+        // Then
+        verify(delegate, times(1)).putFromLoad("key", "value", null);
+        verify(topic, never()).publishAsync(any());
+    }
+
+    @Test
+    void invalidationFromOtherNode_ShouldDropLocalEntry() {
+        // Given
+        when(delegate.getFromCache("key", null)).thenReturn("old", "new");
+        storage.getFromCache("key", null);
+
+        // When
+        messageListener.onMessage("channel", new NearCacheInvalidation("other-node", "key"));
+
+        // Then
+        assertThat(storage.getFromCache("key", null)).isEqualTo("new");
+        verify(delegate, times(2)).getFromCache("key", null);
+    }
+
+    @Test
+    void invalidationWithoutKey_ShouldClearLocalCache() {
+        // Given
+        when(delegate.getFromCache(any(), any())).thenReturn("value");
+        storage.getFromCache("key1", null);
+        storage.getFromCache("key2", null);
+
+        // When
+        messageListener.onMessage("channel", new NearCacheInvalidation("other-node", null));
+
+        // Then
+        assertThat(storage.localSize()).isZero();
+    }
+
+    @Test
+    void resubscribe_ShouldClearLocalCache() {
+        // Given
+        when(delegate.getFromCache("key", null)).thenReturn("value");
+        storage.getFromCache("key", null);
+
+        // When
+        statusListener.onSubscribe("channel");
+
+        // Then
+        storage.getFromCache("key", null);
+        verify(delegate, times(2)).getFromCache("key", null);
+    }
+
+    @Test
+    void evictData_ShouldClearLocallyAndPublishRegionWideInvalidation() {
+        // Given
+        when(delegate.getFromCache("key", null)).thenReturn("value");
+        storage.getFromCache("key", null);
+
+        // When
+        storage.evictData();
+
+        // Then
+        verify(delegate, times(1)).evictData();
+        ArgumentCaptor<NearCacheInvalidation> captor = ArgumentCaptor.forClass(NearCacheInvalidation.class);
+        verify(topic).publishAsync(captor.capture());
+        assertThat(captor.getValue().key()).isNull();
+        assertThat(storage.localSize()).isZero();
+    }
+
+    @Test
+    void contains_WhenPresentLocally_ShouldNotAskRedis() {
+        // Given
+        when(delegate.getFromCache("key", null)).thenReturn("value");
+        storage.getFromCache("key", null);
+
+        // When
+        boolean result = storage.contains("key");
+
+        // Then
+        assertThat(result).isTrue();
+        verify(delegate, never()).contains(any());
+    }
+
+    @Test
+    void release_ShouldRemoveListenersAndReleaseDelegate() {
+        // When
+        storage.release();
+
+        // Then
+        verify(topic, times(1)).removeListener(1, 2);
+        verify(delegate, times(1)).release();
+    }
+
+    @Test
+    void prefetch_ShouldOnlyAskRedisForKeysMissingLocally() {
+        // Given
+        BatchStorageAccess batchDelegate = mock(BatchStorageAccess.class);
+        RegionBatch delegateBatch = mock(RegionBatch.class);
+        SharedSessionContractImplementor session = mock(SharedSessionContractImplementor.class);
+        when(batchDelegate.openBatch(session)).thenReturn(delegateBatch);
+        when(batchDelegate.getFromCache("cached", null)).thenReturn("value");
+        NearCacheStorageAccess batchStorage = new NearCacheStorageAccess(batchDelegate, topic, 100, 60_000);
+        batchStorage.getFromCache("cached", null);
+
+        // When
+        try (RegionBatch batch = batchStorage.openBatch(session)) {
+            batch.prefetch(List.of("cached", "missing"));
+        }
+
+        // Then
+        verify(delegateBatch).prefetch(List.of("missing"));
+        verify(delegateBatch).close();
+    }
+
+    @Test
+    void putIntoCache_InsideBatch_ShouldBeTreatedAsLoadAndNotPublish() {
+        // Given
+        BatchStorageAccess batchDelegate = mock(BatchStorageAccess.class);
+        SharedSessionContractImplementor session = mock(SharedSessionContractImplementor.class);
+        when(batchDelegate.openBatch(session)).thenReturn(mock(RegionBatch.class));
+        NearCacheStorageAccess batchStorage = new NearCacheStorageAccess(batchDelegate, topic, 100, 60_000);
+
+        // When
+        RegionBatch batch = batchStorage.openBatch(session);
+        try {
+            batchStorage.putIntoCache("loaded", "value", session);
+            batchStorage.putIntoCache("locked", mock(SoftLock.class), session);
+        } finally {
+            batch.close();
+        }
+        batchStorage.putIntoCache("updated", "value", session);
+
+        // Then
+        verify(batchDelegate).putFromLoad("loaded", "value", session);
+        ArgumentCaptor<NearCacheInvalidation> captor = ArgumentCaptor.forClass(NearCacheInvalidation.class);
+        verify(topic, times(2)).publishAsync(captor.capture());
+        assertThat(captor.getAllValues()).extracting(NearCacheInvalidation::key).containsExactly("locked", "updated");
+    }
+}
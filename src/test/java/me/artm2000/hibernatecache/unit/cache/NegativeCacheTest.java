@@ -0,0 +1,166 @@
+package me.artm2000.hibernatecache.unit.cache;
+
+import me.artm2000.hibernatecache.common.cache.NegativeCache;
+import me.artm2000.hibernatecache.common.cache.RedisCircuitBreaker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.redisson.api.EvictionMode;
+import org.redisson.api.RMapCache;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.RedisConnectionException;
+import org.redisson.client.codec.StringCodec;
+import org.redisson.misc.CompletableFutureWrapper;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class NegativeCacheTest {
+
+    @Mock
+    private RedissonClient redisson;
+
+    @Mock
+    private RMapCache<String, String> entries;
+
+    private NegativeCache negativeCache;
+
+    @BeforeEach
+    void setUp() {
+        when(redisson.<String, String>getMapCache("negative.notes", StringCodec.INSTANCE)).thenReturn(entries);
+        negativeCache = new NegativeCache(redisson, "negative.notes", Duration.ofSeconds(60), 1000);
+    }
+
+    @Test
+    void constructor_ShouldBoundEntries() {
+        verify(entries).setMaxSize(1000, EvictionMode.LRU);
+    }
+
+    @Test
+    void constructor_WithoutMaxEntries_ShouldLeaveEntriesUnbounded() {
+        // Given
+        RMapCache<String, String> unbounded = mock();
+        when(redisson.<String, String>getMapCache("negative.other", StringCodec.INSTANCE)).thenReturn(unbounded);
+
+        // When
+        new NegativeCache(redisson, "negative.other", Duration.ofSeconds(60), 0);
+
+        // Then
+        verify(unbounded, never()).setMaxSize(anyInt(), any());
+    }
+
+    @Test
+    void isMissing_ShouldOnlyTrustStoredMisses() {
+        // Given
+        when(entries.get("title:a")).thenReturn("missing");
+        when(entries.get("title:b")).thenReturn("written");
+
+        // When / Then
+        assertThat(negativeCache.isMissing("title:a")).isTrue();
+        assertThat(negativeCache.isMissing("title:b")).isFalse();
+        assertThat(negativeCache.isMissing("title:c")).isFalse();
+    }
+
+    @Test
+    void isMissingAsync_ShouldOnlyTrustStoredMisses() {
+        // Given
+        when(entries.getAsync("title:a")).thenReturn(new CompletableFutureWrapper<>("missing"));
+        when(entries.getAsync("title:b")).thenReturn(new CompletableFutureWrapper<>("written"));
+        when(entries.getAsync("title:c")).thenReturn(new CompletableFutureWrapper<>((String) null));
+
+        // When / Then
+        assertThat(negativeCache.isMissingAsync("title:a").toCompletableFuture().join()).isTrue();
+        assertThat(negativeCache.isMissingAsync("title:b").toCompletableFuture().join()).isFalse();
+        assertThat(negativeCache.isMissingAsync("title:c").toCompletableFuture().join()).isFalse();
+        verify(entries, never()).get(any());
+    }
+
+    @Test
+    void putMissing_ShouldNotReplaceAnEntry() {
+        // When
+        negativeCache.putMissing("id:7");
+
+        // Then
+        verify(entries).fastPutIfAbsent("id:7", "missing", 60000, TimeUnit.MILLISECONDS);
+    }
+
+    @Test
+    void putDeleted_ShouldReplaceWriteMarker() {
+        // When
+        negativeCache.putDeleted("id:7");
+
+        // Then
+        verify(entries).fastPut("id:7", "missing", 60000, TimeUnit.MILLISECONDS);
+    }
+
+    @Test
+    void invalidate_ShouldStoreWriteMarkers() {
+        // When
+        negativeCache.invalidate(List.of("id:7", "title:a", "title:a"));
+
+        // Then
+        verify(entries).putAll(Map.of("id:7", "written", "title:a", "written"), 60000, TimeUnit.MILLISECONDS);
+    }
+
+    @Test
+    void invalidate_WithNoKeys_ShouldNotTouchRedis() {
+        // When
+        negativeCache.invalidate(List.of());
+
+        // Then
+        verify(entries, never()).putAll(any(), anyLong(), any());
+    }
+
+    @Test
+    void isMissing_WhenRedisFails_ShouldReturnFalse() {
+        // Given
+        when(entries.getAsync("title:a")).thenReturn(new CompletableFutureWrapper<>(new RedisConnectionException("Redis is down")));
+        RedisCircuitBreaker breaker = new RedisCircuitBreaker(50, 5, 10, () -> CompletableFuture.completedFuture(true));
+        NegativeCache guarded = new NegativeCache(redisson, "negative.notes", Duration.ofSeconds(60), 1000, breaker);
+
+        try {
+            // When / Then
+            assertThat(guarded.isMissing("title:a")).isFalse();
+            assertThat(guarded.isMissingAsync("title:a").toCompletableFuture().join()).isFalse();
+        } finally {
+            breaker.close();
+        }
+    }
+
+    @Test
+    void invalidate_WhenRedisFails_ShouldStoreWriteMarkersOnceItRecovers() {
+        // Given
+        AtomicBoolean redisUp = new AtomicBoolean(false);
+        when(entries.putAllAsync(anyMap(), anyLong(), any())).thenReturn(new CompletableFutureWrapper<>(new RedisConnectionException("Redis is down")));
+        RedisCircuitBreaker breaker = new RedisCircuitBreaker(50, 5, 10, () -> redisUp.get()
+            ? CompletableFuture.completedFuture(true)
+            : CompletableFuture.failedFuture(new RedisConnectionException("Redis is down")));
+        NegativeCache guarded = new NegativeCache(redisson, "negative.notes", Duration.ofSeconds(60), 1000, breaker);
+
+        try {
+            // When
+            guarded.invalidate(List.of("title:a"));
+            guarded.putMissing("title:a");
+            redisUp.set(true);
+
+            // Then
+            verify(entries, timeout(2000)).putAll(Map.of("title:a", "written"), 60000, TimeUnit.MILLISECONDS);
+            verify(entries, never()).fastPutIfAbsentAsync(any(), any(), anyLong(), any(), anyLong(), any());
+        } finally {
+            breaker.close();
+        }
+    }
+}
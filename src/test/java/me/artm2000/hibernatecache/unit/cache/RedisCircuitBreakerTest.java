@@ -0,0 +1,131 @@
+package me.artm2000.hibernatecache.unit.cache;
+
+import me.artm2000.hibernatecache.common.cache.RedisCircuitBreaker;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RedisCircuitBreakerTest {
+
+    private final AtomicBoolean redisUp = new AtomicBoolean(true);
+    private final RedisCircuitBreaker breaker = new RedisCircuitBreaker(50, 2, 10, () -> redisUp.get()
+        ? CompletableFuture.completedFuture(true)
+        : CompletableFuture.failedFuture(new IllegalStateException("Redis is down")));
+
+    @AfterEach
+    void tearDown() {
+        breaker.close();
+    }
+
+    @Test
+    void read_WithinBudget_ShouldReturnTheResult() {
+        // When / Then
+        assertThat(breaker.read("get", () -> CompletableFuture.completedFuture("value"), "bypass")).isEqualTo("value");
+        assertThat(breaker.isOpen()).isFalse();
+    }
+
+    @Test
+    void read_OverBudget_ShouldReturnBypassValueAndOpenAfterThreshold() {
+        // Given
+        AtomicInteger calls = new AtomicInteger();
+        redisUp.set(false);
+
+        // When
+        String first = breaker.read("get", () -> slow(calls), "bypass");
+        boolean openAfterFirst = breaker.isOpen();
+        breaker.read("get", () -> slow(calls), "bypass");
+        String whileOpen = breaker.read("get", () -> slow(calls), "bypass");
+
+        // Then
+        assertThat(first).isEqualTo("bypass");
+        assertThat(openAfterFirst).isFalse();
+        assertThat(breaker.isOpen()).isTrue();
+        assertThat(whileOpen).isEqualTo("bypass");
+        assertThat(calls).hasValue(2);
+    }
+
+    @Test
+    void read_Succeeding_ShouldResetConsecutiveFailures() {
+        // When
+        breaker.read("get", () -> CompletableFuture.failedFuture(new IllegalStateException()), "bypass");
+        breaker.read("get", () -> CompletableFuture.completedFuture("value"), "bypass");
+        breaker.read("get", () -> CompletableFuture.failedFuture(new IllegalStateException()), "bypass");
+
+        // Then
+        assertThat(breaker.isOpen()).isFalse();
+    }
+
+    @Test
+    void write_Failing_ShouldOpenAtOnceAndSkipFollowingWrites() {
+        // Given
+        AtomicInteger calls = new AtomicInteger();
+        redisUp.set(false);
+
+        // When
+        breaker.write("put", () -> {
+            calls.incrementAndGet();
+            return CompletableFuture.failedFuture(new IllegalStateException());
+        });
+        breaker.write("put", () -> {
+            calls.incrementAndGet();
+            return CompletableFuture.completedFuture(null);
+        });
+
+        // Then
+        assertThat(breaker.isOpen()).isTrue();
+        assertThat(calls).hasValue(1);
+    }
+
+    @Test
+    void probe_OnceRedisAnswers_ShouldRunRecoveryListenersAndClose() throws InterruptedException {
+        // Given
+        AtomicInteger recoveries = new AtomicInteger();
+        breaker.onRecovery(recoveries::incrementAndGet);
+        redisUp.set(false);
+        breaker.write("put", () -> CompletableFuture.failedFuture(new IllegalStateException()));
+
+        // When
+        Thread.sleep(50);
+        boolean openWhileDown = breaker.isOpen();
+        redisUp.set(true);
+        waitUntilClosed();
+
+        // Then
+        assertThat(openWhileDown).isTrue();
+        assertThat(recoveries).hasValue(1);
+        assertThat(breaker.read("get", () -> CompletableFuture.completedFuture("value"), "bypass")).isEqualTo("value");
+    }
+
+    @Test
+    void probe_WhenRecoveryListenerFails_ShouldStayOpen() throws InterruptedException {
+        // Given
+        breaker.onRecovery(() -> {
+            throw new IllegalStateException("Redis is down");
+        });
+        breaker.write("put", () -> CompletableFuture.failedFuture(new IllegalStateException()));
+
+        // When
+        Thread.sleep(50);
+
+        // Then
+        assertThat(breaker.isOpen()).isTrue();
+    }
+
+    private CompletableFuture<String> slow(AtomicInteger calls) {
+        calls.incrementAndGet();
+        return CompletableFuture.supplyAsync(() -> "value", CompletableFuture.delayedExecutor(200, TimeUnit.MILLISECONDS));
+    }
+
+    private void waitUntilClosed() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 2000;
+        while (breaker.isOpen() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,390 @@
+package me.artm2000.hibernatecache.unit.cache;
+
+import me.artm2000.hibernatecache.common.cache.RedisCircuitBreaker;
+import me.artm2000.hibernatecache.common.cache.RedisRegionStorage;
+import me.artm2000.hibernatecache.common.cache.RegionBatch;
+import org.hibernate.cache.CacheException;
+import org.hibernate.cache.spi.access.SoftLock;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.redisson.Redisson;
+import org.redisson.api.RBatch;
+import org.redisson.api.RMapCache;
+import org.redisson.api.RMapCacheAsync;
+import org.redisson.connection.ServiceManager;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class RedisRegionStorageTest {
+
+    @Mock
+    private RMapCache<Object, Object> mapCache;
+
+    @Mock
+    private Redisson redisson;
+
+    @Mock
+    private ServiceManager serviceManager;
+
+    @Mock
+    private RBatch redisBatch;
+
+    @Mock
+    private RMapCacheAsync<Object, Object> batchedMapCache;
+
+    @Mock
+    private SharedSessionContractImplementor session;
+
+    @Mock
+    private SharedSessionContractImplementor otherSession;
+
+    private RedisRegionStorage storage;
+
+    @BeforeEach
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    void setUp() {
+        when(mapCache.getName()).thenReturn("entity.notes");
+        when(redisson.getServiceManager()).thenReturn(serviceManager);
+        when(redisson.createBatch()).thenReturn(redisBatch);
+        when(redisBatch.getMapCache(eq("entity.notes"), any())).thenReturn((RMapCacheAsync) batchedMapCache);
+        storage = new RedisRegionStorage(
+                mapCache,
+                redisson,
+                Map.of("hibernate.cache.redisson.entity.notes.expiration.time_to_live", "60000"),
+                "entity",
+                false
+        );
+    }
+
+    @Test
+    void prefetch_ShouldReadAllKeysInOneCall() {
+        // Given
+        when(mapCache.getAll(Set.of("k1", "k2", "k3"))).thenReturn(Map.of("k1", "v1", "k3", "v3"));
+
+        // When
+        try (RegionBatch batch = storage.openBatch(session)) {
+            batch.prefetch(List.of("k1", "k2", "k3"));
+
+            // Then
+            assertThat(storage.getFromCache("k1", session)).isEqualTo("v1");
+            assertThat(storage.getFromCache("k2", session)).isNull();
+            assertThat(storage.getFromCache("k3", session)).isEqualTo("v3");
+        }
+        verify(mapCache, times(1)).getAll(any());
+        verify(mapCache, never()).getWithTTLOnly(any());
+        verify(mapCache, never()).get(any());
+    }
+
+    @Test
+    void getFromCache_FromAnotherSession_ShouldNotUsePrefetchedEntries() {
+        // Given
+        when(mapCache.getAll(any())).thenReturn(Map.of("k1", "v1"));
+        when(mapCache.getWithTTLOnly("k1")).thenReturn("fresh");
+
+        // When
+        try (RegionBatch batch = storage.openBatch(session)) {
+            batch.prefetch(List.of("k1"));
+
+            // Then
+            assertThat(storage.getFromCache("k1", otherSession)).isEqualTo("fresh");
+        }
+    }
+
+    @Test
+    void getFromCache_AfterBatchClosed_ShouldReadRedis() {
+        // Given
+        when(mapCache.getAll(any())).thenReturn(Map.of("k1", "v1"));
+        when(mapCache.getWithTTLOnly("k1")).thenReturn("fresh");
+        try (RegionBatch batch = storage.openBatch(session)) {
+            batch.prefetch(List.of("k1"));
+        }
+
+        // When
+        Object value = storage.getFromCache("k1", session);
+
+        // Then
+        assertThat(value).isEqualTo("fresh");
+    }
+
+    @Test
+    void putIntoCache_FromAnotherSession_ShouldDropPrefetchedEntry() {
+        // Given
+        when(mapCache.getAll(any())).thenReturn(Map.of("k1", "v1"));
+        when(mapCache.getWithTTLOnly("k1")).thenReturn("v2");
+
+        try (RegionBatch batch = storage.openBatch(session)) {
+            batch.prefetch(List.of("k1"));
+
+            // When
+            storage.putIntoCache("k1", "v2", otherSession);
+
+            // Then
+            assertThat(storage.getFromCache("k1", session)).isEqualTo("v2");
+        }
+        verify(mapCache, times(1)).getWithTTLOnly("k1");
+    }
+
+    @Test
+    void putIntoCache_WithSoftLockDuringBatch_ShouldWriteImmediately() {
+        // Given
+        SoftLock lock = mock(SoftLock.class);
+
+        RegionBatch batch = storage.openBatch(session);
+        try {
+            // When
+            storage.putIntoCache("k1", lock, session);
+
+            // Then
+            verify(mapCache).fastPut("k1", lock, 60000L, TimeUnit.MILLISECONDS, 0L, TimeUnit.MILLISECONDS);
+        } finally {
+            batch.close();
+        }
+        verify(redisson, never()).createBatch();
+    }
+
+    @Test
+    void openBatch_WhenNested_ShouldKeepEntriesUntilOuterBatchIsClosed() {
+        // Given
+        when(mapCache.getAll(any())).thenReturn(Map.of("k1", "v1"));
+
+        RegionBatch outer = storage.openBatch(session);
+        try {
+            try (RegionBatch inner = storage.openBatch(session)) {
+                inner.prefetch(List.of("k1"));
+            }
+
+            // Then
+            assertThat(storage.getFromCache("k1", session)).isEqualTo("v1");
+        } finally {
+            outer.close();
+        }
+        verify(mapCache, never()).getWithTTLOnly(any());
+    }
+
+    @Test
+    void getAllFromCache_WhenRedisFails_ShouldThrowCacheException() {
+        // Given
+        when(mapCache.getAll(any())).thenThrow(new IllegalStateException("connection refused"));
+
+        // When & Then
+        assertThatThrownBy(() -> storage.getAllFromCache(List.of("k1")))
+                .isInstanceOf(CacheException.class);
+    }
+
+    @Test
+    void getAllFromCache_WhenRedisFailsWithFallback_ShouldReturnNothing() {
+        // Given
+        RedisRegionStorage fallbackStorage = new RedisRegionStorage(mapCache, redisson, Map.of(), "entity", true);
+        when(mapCache.getAll(any())).thenThrow(new IllegalStateException("connection refused"));
+
+        // When
+        Map<Object, Object> values = fallbackStorage.getAllFromCache(List.of("k1"));
+
+        // Then
+        assertThat(values).isEmpty();
+    }
+
+    @Test
+    void putFromLoad_DuringBatch_ShouldWriteAbsentEntriesInOnePipelineOnClose() {
+        // Given
+        when(mapCache.getAll(any())).thenReturn(Map.of());
+
+        try (RegionBatch batch = storage.openBatch(session)) {
+            batch.prefetch(List.of("k1", "k2"));
+
+            // When
+            storage.putIntoCache("k1", "v1", session);
+            storage.putFromLoad("k2", "v2", session);
+
+            // Then
+            assertThat(storage.getFromCache("k1", session)).isEqualTo("v1");
+            verify(redisBatch, never()).execute();
+        }
+        verify(batchedMapCache).fastPutIfAbsentAsync("k1", "v1", 60000L, TimeUnit.MILLISECONDS, 0L, TimeUnit.MILLISECONDS);
+        verify(batchedMapCache).fastPutIfAbsentAsync("k2", "v2", 60000L, TimeUnit.MILLISECONDS, 0L, TimeUnit.MILLISECONDS);
+        verify(redisBatch, times(1)).execute();
+        verify(mapCache, never()).fastPut(any(), any(), anyLong(), any(), anyLong(), any());
+    }
+
+    @Test
+    void putFromLoad_WhenKeyEvictedBeforeClose_ShouldNotWriteIt() {
+        // Given
+        when(mapCache.getAll(any())).thenReturn(Map.of());
+
+        try (RegionBatch batch = storage.openBatch(session)) {
+            batch.prefetch(List.of("k1", "k2"));
+            storage.putFromLoad("k1", "v1", session);
+            storage.putFromLoad("k2", "v2", session);
+
+            // When
+            storage.evictData("k1");
+        }
+
+        // Then
+        verify(batchedMapCache, never()).fastPutIfAbsentAsync(eq("k1"), any(), anyLong(), any(), anyLong(), any());
+        verify(batchedMapCache).fastPutIfAbsentAsync(eq("k2"), eq("v2"), anyLong(), any(), anyLong(), any());
+    }
+
+    @Test
+    void putFromLoad_DuringBatchOverPrefetchedEntry_ShouldWriteImmediately() {
+        // Given an unlocked soft lock, which hibernate finds writeable and puts the load over
+        SoftLock lock = mock(SoftLock.class);
+        when(mapCache.getAll(any())).thenReturn(Map.of("k1", lock));
+
+        try (RegionBatch batch = storage.openBatch(session)) {
+            batch.prefetch(List.of("k1", "k2"));
+
+            // When
+            storage.putFromLoad("k1", "v1", session);
+            storage.putFromLoad("k2", "v2", session);
+
+            // Then
+            verify(mapCache).fastPut("k1", "v1", 60000L, TimeUnit.MILLISECONDS, 0L, TimeUnit.MILLISECONDS);
+        }
+        verify(batchedMapCache, never()).fastPutIfAbsentAsync(eq("k1"), any(), anyLong(), any(), anyLong(), any());
+        verify(batchedMapCache).fastPutIfAbsentAsync(eq("k2"), eq("v2"), anyLong(), any(), anyLong(), any());
+    }
+
+    @Test
+    void putFromLoad_DuringBatchOfKeyNotPrefetched_ShouldWriteImmediately() {
+        // When
+        RegionBatch batch = storage.openBatch(session);
+        try {
+            storage.putFromLoad("k1", "v1", session);
+        } finally {
+            batch.close();
+        }
+
+        // Then
+        verify(mapCache).fastPut("k1", "v1", 60000L, TimeUnit.MILLISECONDS, 0L, TimeUnit.MILLISECONDS);
+        verify(redisson, never()).createBatch();
+    }
+
+    @Test
+    void putFromLoad_WithoutBatch_ShouldWriteImmediately() {
+        // When
+        storage.putFromLoad("k1", "v1", session);
+
+        // Then
+        verify(mapCache).fastPut("k1", "v1", 60000L, TimeUnit.MILLISECONDS, 0L, TimeUnit.MILLISECONDS);
+        verify(redisson, never()).createBatch();
+    }
+
+    @Test
+    void getFromCache_WithCircuitBreaker_ShouldReadWithinLatencyBudget() {
+        // Given
+        LatentMapCache redis = new LatentMapCache("entity.notes");
+        redis.entries().put("k1", "v1");
+        try (RedisCircuitBreaker breaker = breaker()) {
+            RedisRegionStorage guarded = guardedStorage(redis, "entity", breaker);
+
+            // When / Then
+            assertThat(guarded.getFromCache("k1", session)).isEqualTo("v1");
+            assertThat(guarded.contains("k1")).isTrue();
+            verify(redis.mapCache()).getWithTTLOnlyAsync("k1");
+            verify(redis.mapCache(), never()).get(any());
+        }
+    }
+
+    @Test
+    void getFromCache_WhenRedisIsSlow_ShouldMissAndBypassRedisOnceOpen() {
+        // Given
+        LatentMapCache redis = new LatentMapCache("entity.notes");
+        redis.entries().put("k1", "v1");
+        redis.latency(200);
+        try (RedisCircuitBreaker breaker = breaker()) {
+            RedisRegionStorage guarded = guardedStorage(redis, "entity", breaker);
+
+            // When
+            Object first = guarded.getFromCache("k1", session);
+            Object second = guarded.getFromCache("k1", session);
+            guarded.putIntoCache("k2", "v2", session);
+            Object whileOpen = guarded.getFromCache("k1", session);
+
+            // Then
+            assertThat(first).isNull();
+            assertThat(second).isNull();
+            assertThat(whileOpen).isNull();
+            assertThat(breaker.isOpen()).isTrue();
+            verify(redis.mapCache(), times(2)).getWithTTLOnlyAsync("k1");
+            verify(redis.mapCache(), never()).fastPutAsync(any(), any(), anyLong(), any(), anyLong(), any());
+        }
+    }
+
+    @Test
+    void putIntoCache_WhenRedisIsDown_ShouldOpenCircuitBreaker() {
+        // Given
+        LatentMapCache redis = new LatentMapCache("entity.notes");
+        redis.down(true);
+        try (RedisCircuitBreaker breaker = breaker()) {
+            RedisRegionStorage guarded = guardedStorage(redis, "entity", breaker);
+
+            // When
+            guarded.putIntoCache("k1", "v1", session);
+            guarded.evictData("k1");
+
+            // Then
+            assertThat(breaker.isOpen()).isTrue();
+            verify(redis.mapCache(), never()).fastRemoveAsync(any());
+        }
+    }
+
+    @Test
+    void prefetch_WhenRedisIsSlow_ShouldLetSessionReadFromDatabase() {
+        // Given
+        LatentMapCache redis = new LatentMapCache("entity.notes");
+        redis.entries().put("k1", "v1");
+        redis.latency(200);
+        try (RedisCircuitBreaker breaker = breaker()) {
+            RedisRegionStorage guarded = guardedStorage(redis, "entity", breaker);
+
+            // When
+            try (RegionBatch batch = guarded.openBatch(session)) {
+                batch.prefetch(List.of("k1"));
+
+                // Then
+                assertThat(guarded.getFromCache("k1", session)).isNull();
+            }
+        }
+    }
+
+    @Test
+    void getFromCache_OfTimestampsRegion_WhenBypassed_ShouldMakeQueriesStale() {
+        // Given
+        LatentMapCache redis = new LatentMapCache("default-update-timestamps-region");
+        redis.down(true);
+        try (RedisCircuitBreaker breaker = breaker()) {
+            RedisRegionStorage guarded = guardedStorage(redis, "timestamps", breaker);
+
+            // When / Then
+            assertThat(guarded.getFromCache("notes", session)).isEqualTo(Long.MAX_VALUE);
+        }
+    }
+
+    private RedisCircuitBreaker breaker() {
+        return new RedisCircuitBreaker(50, 2, 60000, () -> CompletableFuture.completedFuture(true));
+    }
+
+    private RedisRegionStorage guardedStorage(LatentMapCache redis, String defaultKey, RedisCircuitBreaker breaker) {
+        return new RedisRegionStorage(redis.mapCache(), redisson, Map.of(), defaultKey, false, breaker);
+    }
+}
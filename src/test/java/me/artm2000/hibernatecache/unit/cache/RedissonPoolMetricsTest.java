@@ -0,0 +1,97 @@
+package me.artm2000.hibernatecache.unit.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import me.artm2000.hibernatecache.common.cache.RedissonPoolMetrics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.redisson.Redisson;
+import org.redisson.client.RedisConnection;
+import org.redisson.command.CommandAsyncExecutor;
+import org.redisson.config.MasterSlaveServersConfig;
+import org.redisson.connection.ClientConnectionsEntry;
+import org.redisson.connection.ConnectionManager;
+import org.redisson.connection.ConnectionsHolder;
+import org.redisson.connection.MasterSlaveEntry;
+import org.redisson.connection.ServiceManager;
+import org.redisson.misc.AsyncSemaphore;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class RedissonPoolMetricsTest {
+
+    @Mock
+    private Redisson redisson;
+
+    @Mock
+    private CommandAsyncExecutor commandExecutor;
+
+    @Mock
+    private ConnectionManager connectionManager;
+
+    @Mock
+    private ServiceManager serviceManager;
+
+    @Mock
+    private MasterSlaveEntry entry;
+
+    @Mock
+    private ClientConnectionsEntry node;
+
+    @Mock
+    private ConnectionsHolder<RedisConnection> holder;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void setUp() {
+        when(redisson.getCommandExecutor()).thenReturn(commandExecutor);
+        when(commandExecutor.getConnectionManager()).thenReturn(connectionManager);
+        when(connectionManager.getEntrySet()).thenReturn(List.of(entry));
+        when(entry.getAllEntries()).thenReturn(List.of(node));
+        when(node.getConnectionsHolder()).thenReturn(holder);
+        when(redisson.getServiceManager()).thenReturn(serviceManager);
+        when(serviceManager.getConfig()).thenReturn(new MasterSlaveServersConfig().setMasterConnectionPoolSize(64));
+
+        new RedissonPoolMetrics(redisson, "hibernate").bindTo(registry);
+    }
+
+    @Test
+    void gauges_ShouldReadConnectionPoolOfEveryNode() {
+        // Given
+        RedisConnection connection = mock(RedisConnection.class);
+        when(holder.getAllConnections()).thenReturn(new ConcurrentLinkedQueue<>(List.of(connection, mock(RedisConnection.class))));
+        when(holder.getFreeConnections()).thenReturn(new ArrayBlockingQueue<>(1, false, List.of(connection)));
+        when(holder.getFreeConnectionsCounter()).thenReturn(new AsyncSemaphore(0));
+
+        // When / Then
+        assertThat(gauge("redis.pool.connections", "open")).isEqualTo(2);
+        assertThat(gauge("redis.pool.connections", "idle")).isEqualTo(1);
+        assertThat(registry.get("redis.pool.pending").tag("client", "hibernate").gauge().value()).isZero();
+        assertThat(registry.get("redis.pool.max").tag("client", "hibernate").gauge().value()).isEqualTo(64);
+    }
+
+    @Test
+    void gauges_AfterShutdown_ShouldReportNothing() {
+        // Given
+        when(redisson.isShutdown()).thenReturn(true);
+
+        // When / Then
+        assertThat(gauge("redis.pool.connections", "open")).isNaN();
+    }
+
+    private double gauge(String name, String state) {
+        return registry.get(name).tags("client", "hibernate", "state", state).gauge().value();
+    }
+}
@@ -0,0 +1,79 @@
+package me.artm2000.hibernatecache.unit.cache;
+
+import me.artm2000.hibernatecache.common.cache.RegionProperties;
+import org.hibernate.cache.CacheException;
+import org.junit.jupiter.api.Test;
+import org.redisson.api.EvictionMode;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RegionPropertiesTest {
+
+    @Test
+    void get_WhenRegionPropertyExists_ShouldPreferItOverRegionType() {
+        // Given
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("hibernate.cache.redisson.entity.notes.eviction.max_entries", "500");
+        properties.put("hibernate.cache.redisson.entity.eviction.max_entries", "100");
+
+        // When
+        RegionProperties regionProperties = new RegionProperties(properties, "entity.notes", "entity");
+
+        // Then
+        assertThat(regionProperties.getMaxEntries()).isEqualTo(500);
+    }
+
+    @Test
+    void get_WhenOnlyRegionTypePropertyExists_ShouldFallBackToIt() {
+        // Given
+        Map<String, Object> properties = Map.of("hibernate.cache.redisson.query.expiration.time_to_live", " 60000 ");
+
+        // When
+        RegionProperties regionProperties = new RegionProperties(properties, "query.findAllNotes", "query");
+
+        // Then
+        assertThat(regionProperties.getLong(".expiration.time_to_live", 0)).isEqualTo(60000L);
+    }
+
+    @Test
+    void get_WhenNothingConfigured_ShouldReturnDefault() {
+        // When
+        RegionProperties regionProperties = new RegionProperties(Map.of(), "entity.notes", "entity");
+
+        // Then
+        assertThat(regionProperties.getMaxEntries()).isZero();
+        assertThat(regionProperties.get(RegionProperties.CODEC_SUFFIX, null)).isNull();
+        assertThat(regionProperties.getEvictionMode()).isEqualTo(EvictionMode.LRU);
+    }
+
+    @Test
+    void getEvictionMode_ShouldBeCaseInsensitive() {
+        // Given
+        Map<String, Object> properties = Map.of("hibernate.cache.redisson.entity.notes.eviction.mode", "lfu");
+
+        // When
+        RegionProperties regionProperties = new RegionProperties(properties, "entity.notes", "entity");
+
+        // Then
+        assertThat(regionProperties.getEvictionMode()).isEqualTo(EvictionMode.LFU);
+    }
+
+    @Test
+    void getEvictionMode_WithUnknownMode_ShouldThrowCacheException() {
+        // Given
+        Map<String, Object> properties = Map.of("hibernate.cache.redisson.entity.notes.eviction.mode", "FIFO");
+
+        // When
+        RegionProperties regionProperties = new RegionProperties(properties, "entity.notes", "entity");
+
+        // Then
+        assertThatThrownBy(regionProperties::getEvictionMode)
+                .isInstanceOf(CacheException.class)
+                .hasMessageContaining("FIFO")
+                .hasMessageContaining("entity.notes");
+    }
+}
@@ -0,0 +1,186 @@
+package me.artm2000.hibernatecache.unit.cache;
+
+import me.artm2000.hibernatecache.common.cache.RedisCircuitBreaker;
+import me.artm2000.hibernatecache.common.cache.SingleFlight;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.RedisConnectionException;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class SingleFlightTest {
+
+    @Mock
+    private RedissonClient redissonClient;
+
+    @Mock
+    private RedisCircuitBreaker circuitBreaker;
+
+    @Mock
+    private RLock lock;
+
+    @Test
+    void execute_WithConcurrentCallsForSameKey_ShouldRunLoaderOnce() throws Exception {
+        // Given
+        SingleFlight singleFlight = new SingleFlight(redissonClient, circuitBreaker, false, Duration.ofSeconds(1), Duration.ofSeconds(1));
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        try {
+            // When
+            Future<String> leader = executor.submit(() -> singleFlight.execute("notes:id:1", () -> {
+                loads.incrementAndGet();
+                loading.countDown();
+                await(release);
+                return "note";
+            }));
+            loading.await(5, TimeUnit.SECONDS);
+            Future<String> follower = executor.submit(() -> singleFlight.execute("notes:id:1", () -> {
+                loads.incrementAndGet();
+                return "other";
+            }));
+            Thread.sleep(100);
+            release.countDown();
+
+            // Then
+            assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo("note");
+            assertThat(follower.get(5, TimeUnit.SECONDS)).isEqualTo("note");
+            assertThat(loads).hasValue(1);
+        } finally {
+            executor.shutdownNow();
+        }
+        verifyNoInteractions(redissonClient);
+    }
+
+    @Test
+    void execute_AfterLoadCompleted_ShouldLoadAgain() {
+        // Given
+        SingleFlight singleFlight = new SingleFlight(redissonClient, circuitBreaker, false, Duration.ofSeconds(1), Duration.ofSeconds(1));
+        AtomicInteger loads = new AtomicInteger();
+
+        // When
+        singleFlight.execute("notes:all", loads::incrementAndGet);
+        singleFlight.execute("notes:all", loads::incrementAndGet);
+
+        // Then
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void execute_WhenLoaderFails_ShouldThrowToEveryWaiterAndForgetKey() throws Exception {
+        // Given
+        SingleFlight singleFlight = new SingleFlight(redissonClient, circuitBreaker, false, Duration.ofSeconds(1), Duration.ofSeconds(1));
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        try {
+            Future<Object> leader = executor.submit(() -> singleFlight.execute("notes:all", () -> {
+                loading.countDown();
+                await(release);
+                throw new IllegalStateException("database down");
+            }));
+            loading.await(5, TimeUnit.SECONDS);
+            Future<Object> follower = executor.submit(() -> singleFlight.execute("notes:all", () -> "other"));
+            Thread.sleep(100);
+            release.countDown();
+
+            // Then
+            assertThatThrownBy(() -> leader.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(IllegalStateException.class);
+            assertThatThrownBy(() -> follower.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(IllegalStateException.class);
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(singleFlight.execute("notes:all", () -> "reloaded")).isEqualTo("reloaded");
+    }
+
+    @Test
+    void execute_WhenDistributed_ShouldLoadUnderRedisLock() throws Exception {
+        // Given
+        when(redissonClient.getLock("single-flight:notes:id:1")).thenReturn(lock);
+        when(lock.tryLock(2000, 10000, TimeUnit.MILLISECONDS)).thenReturn(true);
+        when(lock.isHeldByCurrentThread()).thenReturn(true);
+        SingleFlight singleFlight = new SingleFlight(redissonClient, circuitBreaker, true, Duration.ofSeconds(2), Duration.ofSeconds(10));
+
+        // When
+        String result = singleFlight.execute("notes:id:1", () -> "note");
+
+        // Then
+        assertThat(result).isEqualTo("note");
+        var order = inOrder(lock);
+        order.verify(lock).tryLock(2000, 10000, TimeUnit.MILLISECONDS);
+        order.verify(lock).unlock();
+    }
+
+    @Test
+    void execute_WhenDistributedLockTimesOut_ShouldLoadAnyway() throws Exception {
+        // Given
+        when(redissonClient.getLock("single-flight:notes:id:1")).thenReturn(lock);
+        when(lock.tryLock(2000, 10000, TimeUnit.MILLISECONDS)).thenReturn(false);
+        SingleFlight singleFlight = new SingleFlight(redissonClient, circuitBreaker, true, Duration.ofSeconds(2), Duration.ofSeconds(10));
+
+        // When
+        String result = singleFlight.execute("notes:id:1", () -> "note");
+
+        // Then
+        assertThat(result).isEqualTo("note");
+        verify(lock, never()).unlock();
+    }
+
+    @Test
+    void execute_WhenDistributedLockFails_ShouldLoadAnyway() throws Exception {
+        // Given
+        when(redissonClient.getLock("single-flight:notes:id:1")).thenReturn(lock);
+        when(lock.tryLock(2000, 10000, TimeUnit.MILLISECONDS)).thenThrow(new RedisConnectionException("Redis is down"));
+        SingleFlight singleFlight = new SingleFlight(redissonClient, circuitBreaker, true, Duration.ofSeconds(2), Duration.ofSeconds(10));
+
+        // When
+        String result = singleFlight.execute("notes:id:1", () -> "note");
+
+        // Then
+        assertThat(result).isEqualTo("note");
+        verify(lock, never()).unlock();
+    }
+
+    @Test
+    void execute_WhenDistributedAndRedisBypassed_ShouldNotTakeLock() {
+        // Given
+        when(circuitBreaker.isOpen()).thenReturn(true);
+        SingleFlight singleFlight = new SingleFlight(redissonClient, circuitBreaker, true, Duration.ofSeconds(2), Duration.ofSeconds(10));
+
+        // When
+        String result = singleFlight.execute("notes:id:1", () -> "note");
+
+        // Then
+        assertThat(result).isEqualTo("note");
+        verifyNoInteractions(redissonClient);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
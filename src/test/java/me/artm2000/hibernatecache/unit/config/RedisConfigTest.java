@@ -1,5 +1,6 @@
 package me.artm2000.hibernatecache.unit.config;
 
+import me.artm2000.hibernatecache.common.CustomizeRegionFactory;
 import me.artm2000.hibernatecache.common.config.RedisConfig;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -13,6 +14,9 @@ import org.redisson.config.Config;
 import org.redisson.config.SingleServerConfig;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import java.util.HashMap;
+import java.util.Map;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
@@ -43,7 +47,7 @@ class RedisConfigTest {
         ReflectionTestUtils.setField(redisConfig, "redisPassword", "");
 
         try (MockedStatic<RedisConfig> mockedRedisConfig = mockStatic(RedisConfig.class)) {
-            mockedRedisConfig.when(() -> RedisConfig.getRedissonClient("localhost", "6379", 0, "", false))
+            mockedRedisConfig.when(() -> RedisConfig.getRedissonClient("localhost", "6379", 0, "", false, false))
                     .thenReturn(mockRedissonClient);
 
             // When
@@ -51,7 +55,7 @@ class RedisConfigTest {
 
             // Then
             assertThat(result).isEqualTo(mockRedissonClient);
-            mockedRedisConfig.verify(() -> RedisConfig.getRedissonClient("localhost", "6379", 0, "", false));
+            mockedRedisConfig.verify(() -> RedisConfig.getRedissonClient("localhost", "6379", 0, "", false, false));
         }
     }
 
@@ -64,7 +68,7 @@ class RedisConfigTest {
         ReflectionTestUtils.setField(redisConfig, "redisPassword", "testpassword");
 
         try (MockedStatic<RedisConfig> mockedRedisConfig = mockStatic(RedisConfig.class)) {
-            mockedRedisConfig.when(() -> RedisConfig.getRedissonClient("localhost", "6379", 0, "testpassword", false))
+            mockedRedisConfig.when(() -> RedisConfig.getRedissonClient("localhost", "6379", 0, "testpassword", false, false))
                     .thenReturn(mockRedissonClient);
 
             // When
@@ -72,7 +76,7 @@ class RedisConfigTest {
 
             // Then
             assertThat(result).isEqualTo(mockRedissonClient);
-            mockedRedisConfig.verify(() -> RedisConfig.getRedissonClient("localhost", "6379", 0, "testpassword", false));
+            mockedRedisConfig.verify(() -> RedisConfig.getRedissonClient("localhost", "6379", 0, "testpassword", false, false));
         }
     }
 
@@ -85,7 +89,7 @@ class RedisConfigTest {
         ReflectionTestUtils.setField(redisConfig, "redisPassword", null);
 
         try (MockedStatic<RedisConfig> mockedRedisConfig = mockStatic(RedisConfig.class)) {
-            mockedRedisConfig.when(() -> RedisConfig.getRedissonClient(null, null, 0, null, false))
+            mockedRedisConfig.when(() -> RedisConfig.getRedissonClient(null, null, 0, null, false, false))
                     .thenReturn(mockRedissonClient);
 
             // When
@@ -93,10 +97,45 @@ class RedisConfigTest {
 
             // Then
             assertThat(result).isEqualTo(mockRedissonClient);
-            mockedRedisConfig.verify(() -> RedisConfig.getRedissonClient(null, null, 0, null, false));
+            mockedRedisConfig.verify(() -> RedisConfig.getRedissonClient(null, null, 0, null, false, false));
         }
     }
 
+    @Test
+    void redissonClient_WithVirtualThreads_ShouldPassThemOn() {
+        // Given
+        ReflectionTestUtils.setField(redisConfig, "redisHost", "localhost");
+        ReflectionTestUtils.setField(redisConfig, "redisPort", "6379");
+        ReflectionTestUtils.setField(redisConfig, "redisDatabase", 0);
+        ReflectionTestUtils.setField(redisConfig, "redisPassword", "");
+        ReflectionTestUtils.setField(redisConfig, "virtualThreads", true);
+
+        try (MockedStatic<RedisConfig> mockedRedisConfig = mockStatic(RedisConfig.class)) {
+            mockedRedisConfig.when(() -> RedisConfig.getRedissonClient("localhost", "6379", 0, "", false, true))
+                    .thenReturn(mockRedissonClient);
+
+            // When
+            RedissonClient result = redisConfig.redissonClient();
+
+            // Then
+            assertThat(result).isEqualTo(mockRedissonClient);
+            mockedRedisConfig.verify(() -> RedisConfig.getRedissonClient("localhost", "6379", 0, "", false, true));
+        }
+    }
+
+    @Test
+    void redissonVirtualThreadsCustomizer_ShouldPutModeIntoHibernateProperties() {
+        // Given
+        ReflectionTestUtils.setField(redisConfig, "virtualThreads", true);
+        Map<String, Object> properties = new HashMap<>();
+
+        // When
+        redisConfig.redissonVirtualThreadsCustomizer().customize(properties);
+
+        // Then
+        assertThat(properties).containsEntry(CustomizeRegionFactory.VIRTUAL_THREADS, true);
+    }
+
     @Test
     void getRedissonClient_WithValidParameters_ShouldCreateConfig() {
         // This test verifies the static method creates a client without throwing exceptions
@@ -1,24 +1,41 @@
 package me.artm2000.hibernatecache.unit.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import me.artm2000.hibernatecache.controller.NoteController;
 import me.artm2000.hibernatecache.database.entity.Note;
+import me.artm2000.hibernatecache.dto.NotePage;
+import me.artm2000.hibernatecache.dto.NotePatch;
+import me.artm2000.hibernatecache.dto.NoteSummary;
 import me.artm2000.hibernatecache.service.NoteService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.ByteArrayOutputStream;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.LongStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @ExtendWith(MockitoExtension.class)
 class NoteControllerTest {
@@ -26,6 +43,9 @@ class NoteControllerTest {
     @Mock
     private NoteService noteService;
 
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
     @InjectMocks
     private NoteController noteController;
 
@@ -70,6 +90,20 @@ class NoteControllerTest {
         verify(noteService, times(1)).createNote(inputNote);
     }
 
+    @Test
+    void createNotes_ShouldReturnCreatedNotes() {
+        // Given
+        List<Note> notes = List.of(testNote, archivedNote);
+        when(noteService.createNotes(notes)).thenReturn(notes);
+
+        // When
+        List<Note> result = noteController.createNotes(notes);
+
+        // Then
+        assertThat(result).containsExactly(testNote, archivedNote);
+        verify(noteService, times(1)).createNotes(notes);
+    }
+
     @Test
     void createNote_WithNullNote_ShouldHandleGracefully() {
         // Given
@@ -226,6 +260,75 @@ class NoteControllerTest {
         verify(noteService, times(1)).getAllNonArchivedNotes();
     }
 
+    @Test
+    void getNotesByIds_ShouldReturnNotesFromService() {
+        // Given
+        when(noteService.getNotesByIds(List.of(2L, 1L))).thenReturn(List.of(archivedNote, testNote));
+
+        // When
+        List<Note> result = noteController.getNotesByIds(List.of(2L, 1L));
+
+        // Then
+        assertThat(result).containsExactly(archivedNote, testNote);
+        verify(noteService, times(1)).getNotesByIds(List.of(2L, 1L));
+    }
+
+    @Test
+    void batchGetNotes_ShouldReturnNotesFromService() {
+        // Given
+        when(noteService.getNotesByIds(List.of(1L, 3L))).thenReturn(List.of(testNote));
+
+        // When
+        List<Note> result = noteController.batchGetNotes(List.of(1L, 3L));
+
+        // Then
+        assertThat(result).containsExactly(testNote);
+        verify(noteService, times(1)).getNotesByIds(List.of(1L, 3L));
+    }
+
+    @Test
+    void getNotesByIds_WithMoreIdsThanPageSize_ShouldRejectRequest() {
+        // Given
+        List<Long> ids = LongStream.rangeClosed(1, NoteService.MAX_PAGE_SIZE + 1).boxed().toList();
+
+        // When / Then
+        assertThatThrownBy(() -> noteController.getNotesByIds(ids))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
+        assertThatThrownBy(() -> noteController.batchGetNotes(ids)).isInstanceOf(ResponseStatusException.class);
+        verifyNoInteractions(noteService);
+    }
+
+    @Test
+    void getNotes_WithIdsAndLimit_ShouldRejectRequest() throws Exception {
+        // Given
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(noteController).build();
+
+        // When / Then
+        mockMvc.perform(get("/v1/notes").param("ids", "1").param("limit", "2"))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(noteService);
+    }
+
+    @Test
+    void getNotes_WithIdsOrLimitOrNeither_ShouldRouteToTheirHandlers() throws Exception {
+        // Given
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(noteController).build();
+        when(noteService.getNonArchivedNotesPage(null, 2)).thenReturn(new NotePage(List.of(), null));
+
+        // When
+        mockMvc.perform(get("/v1/notes").param("ids", "1")).andExpect(status().isOk());
+        mockMvc.perform(get("/v1/notes").param("limit", "2")).andExpect(status().isOk());
+        mockMvc.perform(get("/v1/notes")).andExpect(status().isOk());
+        mockMvc.perform(get("/v1/notes").param("view", "summary")).andExpect(status().isOk());
+
+        // Then
+        verify(noteService).getNotesByIds(List.of(1L));
+        verify(noteService).getNonArchivedNotesPage(null, 2);
+        verify(noteService).getAllNonArchivedNotes();
+        verify(noteService).getAllNonArchivedNoteSummaries();
+    }
+
     @Test
     void getAllNotes_WhenNotesExist_ShouldReturnAllNotes() {
         // Given
@@ -255,6 +358,89 @@ class NoteControllerTest {
         verify(noteService, times(1)).getAllNotes();
     }
 
+    @Test
+    void getAllNonArchivedNoteSummaries_ShouldReturnSummariesFromService() {
+        // Given
+        List<NoteSummary> summaries = List.of(new NoteSummary(1L, "Test Note", false, 27));
+        when(noteService.getAllNonArchivedNoteSummaries()).thenReturn(summaries);
+
+        // When
+        List<NoteSummary> result = noteController.getAllNonArchivedNoteSummaries();
+
+        // Then
+        assertThat(result).isEqualTo(summaries);
+        verify(noteService, never()).getAllNonArchivedNotes();
+    }
+
+    @Test
+    void getAllNoteSummaries_ShouldReturnSummariesFromService() {
+        // Given
+        List<NoteSummary> summaries = List.of(
+                new NoteSummary(1L, "Test Note", false, 27),
+                new NoteSummary(2L, "Archived Note", true, 32));
+        when(noteService.getAllNoteSummaries()).thenReturn(summaries);
+
+        // When
+        List<NoteSummary> result = noteController.getAllNoteSummaries();
+
+        // Then
+        assertThat(result).isEqualTo(summaries);
+        verify(noteService, never()).getAllNotes();
+    }
+
+    @Test
+    void getNonArchivedNotesPage_ShouldReturnPageFromService() {
+        // Given
+        NotePage page = new NotePage(List.of(testNote), 1L);
+        when(noteService.getNonArchivedNotesPage(null, 1)).thenReturn(page);
+
+        // When
+        NotePage result = noteController.getNonArchivedNotesPage(null, 1);
+
+        // Then
+        assertThat(result).isEqualTo(page);
+        verify(noteService, times(1)).getNonArchivedNotesPage(null, 1);
+    }
+
+    @Test
+    void getNotesPage_ShouldPassAfterIdAndLimitToService() {
+        // Given
+        NotePage page = new NotePage(List.of(archivedNote), null);
+        when(noteService.getNotesPage(1L, 50)).thenReturn(page);
+
+        // When
+        NotePage result = noteController.getNotesPage(1L, 50);
+
+        // Then
+        assertThat(result.notes()).containsExactly(archivedNote);
+        assertThat(result.nextAfterId()).isNull();
+        verify(noteService, times(1)).getNotesPage(1L, 50);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void exportNotes_ShouldWriteOneJsonLinePerNote() throws Exception {
+        // Given
+        doAnswer(invocation -> {
+            Consumer<Note> consumer = invocation.getArgument(0);
+            consumer.accept(testNote);
+            consumer.accept(archivedNote);
+            return null;
+        }).when(noteService).exportNotes(any());
+
+        // When
+        ResponseEntity<StreamingResponseBody> result = noteController.exportNotes();
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        result.getBody().writeTo(output);
+
+        // Then
+        assertThat(result.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_NDJSON);
+        String[] lines = output.toString().split("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(objectMapper.readValue(lines[0], Note.class)).isEqualTo(testNote);
+        assertThat(objectMapper.readValue(lines[1], Note.class)).isEqualTo(archivedNote);
+    }
+
     @Test
     void updateNoteById_WithValidData_ShouldReturnNoContent() {
         // Given
@@ -302,6 +488,45 @@ class NoteControllerTest {
         verify(noteService, times(1)).updateNoteById(null, updateNote);
     }
 
+    @Test
+    void patchNoteById_ShouldReturnNoContent() {
+        // Given
+        NotePatch patch = new NotePatch(null, null, true);
+        doNothing().when(noteService).patchNoteById(1L, patch);
+
+        // When
+        ResponseEntity<Void> result = noteController.patchNoteById(1L, patch);
+
+        // Then
+        assertThat(result.getStatusCode().value()).isEqualTo(204);
+        verify(noteService, times(1)).patchNoteById(1L, patch);
+    }
+
+    @Test
+    void archiveNotesByIds_ShouldReturnNoContent() {
+        // Given
+        doNothing().when(noteService).archiveNotesByIds(List.of(1L, 2L));
+
+        // When
+        ResponseEntity<Void> result = noteController.archiveNotesByIds(List.of(1L, 2L));
+
+        // Then
+        assertThat(result.getStatusCode().value()).isEqualTo(204);
+        verify(noteService, times(1)).archiveNotesByIds(List.of(1L, 2L));
+    }
+
+    @Test
+    void archiveNotesByIds_WithMoreIdsThanPageSize_ShouldRejectRequest() {
+        // Given
+        List<Long> ids = LongStream.rangeClosed(1, NoteService.MAX_PAGE_SIZE + 1).boxed().toList();
+
+        // When / Then
+        assertThatThrownBy(() -> noteController.archiveNotesByIds(ids))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
+        verifyNoInteractions(noteService);
+    }
+
     @Test
     void archiveNoteById_WithValidId_ShouldReturnNoContent() {
         // Given
@@ -1,6 +1,7 @@
 package me.artm2000.hibernatecache.unit.database.entity;
 
 import me.artm2000.hibernatecache.database.entity.Note;
+import me.artm2000.hibernatecache.database.entity.NoteContent;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -182,4 +183,31 @@ class NoteTest {
         // Then
         assertThat(note.getContent()).isEqualTo(unicodeContent);
     }
+
+    @Test
+    void testContentIsKeptInNoteContent() {
+        // When
+        note.setContent("First Content");
+        NoteContent noteContent = note.getNoteContent();
+        note.setContent("Second Content");
+
+        // Then
+        assertThat(note.getNoteContent()).isSameAs(noteContent);
+        assertThat(noteContent.getNote()).isSameAs(note);
+        assertThat(noteContent.getContent()).isEqualTo("Second Content");
+    }
+
+    @Test
+    void testToStringWithNoteContent_ShouldNotRecurse() {
+        // Given
+        note.setTitle("Test Note");
+        note.setContent("Test Content");
+
+        // When
+        String noteContent = note.getNoteContent().toString();
+
+        // Then
+        assertThat(noteContent).contains("Test Content");
+        assertThat(noteContent).doesNotContain("Test Note");
+    }
 }
@@ -0,0 +1,89 @@
+package me.artm2000.hibernatecache.unit.database.repository;
+
+import jakarta.persistence.EntityManager;
+import me.artm2000.hibernatecache.database.entity.Note;
+import me.artm2000.hibernatecache.database.repository.NoteRepositoryCustomImpl;
+import org.hibernate.Session;
+import org.hibernate.SimpleNaturalIdLoadAccess;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NoteRepositoryCustomImplTest {
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Mock
+    private SimpleNaturalIdLoadAccess<Note> naturalIdLoadAccess;
+
+    private Session session;
+
+    private NoteRepositoryCustomImpl repository;
+
+    @BeforeEach
+    void setUp() {
+        session = mock(Session.class);
+        repository = new NoteRepositoryCustomImpl(entityManager, jdbcTemplate);
+    }
+
+    @Test
+    void findByTitle_ShouldResolveThroughNaturalId() {
+        // Given
+        Note note = new Note();
+        note.setTitle("Test Note");
+        when(entityManager.unwrap(Session.class)).thenReturn(session);
+        when(session.bySimpleNaturalId(Note.class)).thenReturn(naturalIdLoadAccess);
+        when(naturalIdLoadAccess.loadOptional("Test Note")).thenReturn(Optional.of(note));
+
+        // When
+        Optional<Note> result = repository.findByTitle("Test Note");
+
+        // Then
+        assertThat(result).contains(note);
+        verify(entityManager, never()).createQuery(anyString());
+    }
+
+    @Test
+    void findByTitle_WhenNoteDoesNotExist_ShouldReturnEmpty() {
+        // Given
+        when(entityManager.unwrap(Session.class)).thenReturn(session);
+        when(session.bySimpleNaturalId(Note.class)).thenReturn(naturalIdLoadAccess);
+        when(naturalIdLoadAccess.loadOptional("Missing")).thenReturn(Optional.empty());
+
+        // When
+        Optional<Note> result = repository.findByTitle("Missing");
+
+        // Then
+        assertThat(result).isEmpty();
+    }
+
+    @Test
+    void archiveAllById_ShouldRunOneUpdateForAllIds() {
+        // Given
+        when(jdbcTemplate.update(contains("update notes set archived = true"), eq(Map.of("ids", List.of(1L, 2L)))))
+                .thenReturn(2);
+
+        // When
+        int updated = repository.archiveAllById(List.of(1L, 2L));
+
+        // Then
+        assertThat(updated).isEqualTo(2);
+        verify(jdbcTemplate, times(1)).update(anyString(), anyMap());
+    }
+}
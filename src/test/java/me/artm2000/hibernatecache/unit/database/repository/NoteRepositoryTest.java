@@ -7,6 +7,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 
 import java.util.Arrays;
 import java.util.Collections;
@@ -153,63 +154,68 @@ class NoteRepositoryTest {
     }
 
     @Test
-    void findAllByArchived_WithFalse_ShouldReturnOnlyNonArchivedNotes() {
+    void findIdsAfter_ShouldReturnIdsOfNextPage() {
         // Given
-        List<Note> nonArchivedNotes = Arrays.asList(testNote);
-        when(noteRepository.findAllByArchived(false)).thenReturn(nonArchivedNotes);
+        when(noteRepository.findIdsAfter(1L, Limit.of(10))).thenReturn(List.of(2L));
 
         // When
-        List<Note> result = noteRepository.findAllByArchived(false);
+        List<Long> result = noteRepository.findIdsAfter(1L, Limit.of(10));
 
         // Then
-        assertThat(result).hasSize(1);
-        assertThat(result.get(0).getArchived()).isFalse();
-        assertThat(result.get(0).getTitle()).isEqualTo("Test Note");
-
-        verify(noteRepository, times(1)).findAllByArchived(false);
+        assertThat(result).containsExactly(2L);
+        verify(noteRepository, times(1)).findIdsAfter(1L, Limit.of(10));
     }
 
     @Test
-    void findAllByArchived_WithTrue_ShouldReturnOnlyArchivedNotes() {
+    void findAllIdsByArchived_WithFalse_ShouldReturnIdsOfNonArchivedNotes() {
         // Given
-        List<Note> archivedNotes = Arrays.asList(archivedNote);
-        when(noteRepository.findAllByArchived(true)).thenReturn(archivedNotes);
+        when(noteRepository.findAllIdsByArchived(false)).thenReturn(List.of(1L));
 
         // When
-        List<Note> result = noteRepository.findAllByArchived(true);
+        List<Long> result = noteRepository.findAllIdsByArchived(false);
 
         // Then
-        assertThat(result).hasSize(1);
-        assertThat(result.get(0).getArchived()).isTrue();
-        assertThat(result.get(0).getTitle()).isEqualTo("Archived Note");
+        assertThat(result).containsExactly(1L);
+        verify(noteRepository, times(1)).findAllIdsByArchived(false);
+    }
+
+    @Test
+    void findAllIdsByArchived_WithTrue_ShouldReturnIdsOfArchivedNotes() {
+        // Given
+        when(noteRepository.findAllIdsByArchived(true)).thenReturn(List.of(2L));
 
-        verify(noteRepository, times(1)).findAllByArchived(true);
+        // When
+        List<Long> result = noteRepository.findAllIdsByArchived(true);
+
+        // Then
+        assertThat(result).containsExactly(2L);
+        verify(noteRepository, times(1)).findAllIdsByArchived(true);
     }
 
     @Test
-    void findAllByArchived_WhenNoMatchingNotes_ShouldReturnEmptyList() {
+    void findAllIdsByArchived_WhenNoMatchingNotes_ShouldReturnEmptyList() {
         // Given
-        when(noteRepository.findAllByArchived(true)).thenReturn(Collections.emptyList());
+        when(noteRepository.findAllIdsByArchived(true)).thenReturn(Collections.emptyList());
 
         // When
-        List<Note> result = noteRepository.findAllByArchived(true);
+        List<Long> result = noteRepository.findAllIdsByArchived(true);
 
         // Then
         assertThat(result).isEmpty();
-        verify(noteRepository, times(1)).findAllByArchived(true);
+        verify(noteRepository, times(1)).findAllIdsByArchived(true);
     }
 
     @Test
-    void findAllByArchived_WithNull_ShouldCallRepository() {
+    void findAllIdsByArchived_WithNull_ShouldCallRepository() {
         // Given
-        when(noteRepository.findAllByArchived(null)).thenReturn(Collections.emptyList());
+        when(noteRepository.findAllIdsByArchived(null)).thenReturn(Collections.emptyList());
 
         // When
-        List<Note> result = noteRepository.findAllByArchived(null);
+        List<Long> result = noteRepository.findAllIdsByArchived(null);
 
         // Then
         assertThat(result).isEmpty();
-        verify(noteRepository, times(1)).findAllByArchived(null);
+        verify(noteRepository, times(1)).findAllIdsByArchived(null);
     }
 
     @Test
@@ -363,26 +369,16 @@ class NoteRepositoryTest {
     }
 
     @Test
-    void findAllByArchived_WithMultipleNotes_ShouldReturnCorrectSubset() {
+    void findAllIdsByArchived_WithMultipleNotes_ShouldReturnIdsInOrder() {
         // Given
-        Note note1 = new Note();
-        note1.setId(1L);
-        note1.setArchived(false);
-        
-        Note note2 = new Note();
-        note2.setId(2L);
-        note2.setArchived(false);
-        
-        List<Note> nonArchivedNotes = Arrays.asList(note1, note2);
-        when(noteRepository.findAllByArchived(false)).thenReturn(nonArchivedNotes);
+        when(noteRepository.findAllIdsByArchived(false)).thenReturn(List.of(1L, 2L));
 
         // When
-        List<Note> result = noteRepository.findAllByArchived(false);
+        List<Long> result = noteRepository.findAllIdsByArchived(false);
 
         // Then
-        assertThat(result).hasSize(2);
-        assertThat(result.stream().allMatch(note -> !note.getArchived())).isTrue();
-        verify(noteRepository, times(1)).findAllByArchived(false);
+        assertThat(result).containsExactly(1L, 2L);
+        verify(noteRepository, times(1)).findAllIdsByArchived(false);
     }
 
     @Test
@@ -0,0 +1,208 @@
+package me.artm2000.hibernatecache.unit.service;
+
+import me.artm2000.hibernatecache.common.cache.IdBloomFilter;
+import me.artm2000.hibernatecache.common.cache.NegativeCache;
+import me.artm2000.hibernatecache.database.entity.Note;
+import me.artm2000.hibernatecache.dto.NotePage;
+import me.artm2000.hibernatecache.dto.NoteSummary;
+import me.artm2000.hibernatecache.service.impl.NoteAsyncServiceImpl;
+import me.artm2000.hibernatecache.service.impl.NoteServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NoteAsyncServiceImplTest {
+
+    @Mock
+    private NoteServiceImpl noteService;
+
+    @Mock
+    private IdBloomFilter noteIdFilter;
+
+    @Mock
+    private NegativeCache noteNegativeCache;
+
+    private final List<Runnable> tasks = new ArrayList<>();
+
+    private NoteAsyncServiceImpl noteAsyncService;
+
+    private Note testNote;
+
+    @BeforeEach
+    void setUp() {
+        noteAsyncService = new NoteAsyncServiceImpl(noteService, noteIdFilter, noteNegativeCache, tasks::add);
+
+        testNote = new Note();
+        testNote.setId(1L);
+        testNote.setTitle("Test Note");
+        testNote.setContent("This is a test note content");
+        testNote.setArchived(false);
+    }
+
+    private void runTasks() {
+        tasks.forEach(Runnable::run);
+        tasks.clear();
+    }
+
+    @Test
+    void getNoteById_ShouldCheckFilterAndNegativeCacheAtOnceThenLoadOnExecutor() {
+        // Given
+        CompletableFuture<Boolean> mightContain = new CompletableFuture<>();
+        when(noteIdFilter.mightContainAsync(1L)).thenReturn(mightContain);
+        when(noteNegativeCache.isMissingAsync("id:1")).thenReturn(CompletableFuture.completedFuture(false));
+        when(noteService.loadNoteById(1L)).thenReturn(testNote);
+
+        // When
+        CompletableFuture<Note> result = noteAsyncService.getNoteById(1L);
+
+        // Then
+        verify(noteNegativeCache).isMissingAsync("id:1");
+        mightContain.complete(true);
+        assertThat(result).isNotDone();
+        verifyNoInteractions(noteService);
+
+        runTasks();
+        assertThat(result.join()).isEqualTo(testNote);
+    }
+
+    @Test
+    void getNoteById_WhenIdFilterHasNoId_ShouldCompleteNullWithoutLoad() {
+        // Given
+        when(noteIdFilter.mightContainAsync(999L)).thenReturn(CompletableFuture.completedFuture(false));
+        when(noteNegativeCache.isMissingAsync("id:999")).thenReturn(CompletableFuture.completedFuture(false));
+
+        // When
+        CompletableFuture<Note> result = noteAsyncService.getNoteById(999L);
+
+        // Then
+        assertThat(result.join()).isNull();
+        assertThat(tasks).isEmpty();
+        verifyNoInteractions(noteService);
+    }
+
+    @Test
+    void getNoteById_WhenMissCached_ShouldCompleteNullWithoutLoad() {
+        // Given
+        when(noteIdFilter.mightContainAsync(999L)).thenReturn(CompletableFuture.completedFuture(true));
+        when(noteNegativeCache.isMissingAsync("id:999")).thenReturn(CompletableFuture.completedFuture(true));
+
+        // When
+        CompletableFuture<Note> result = noteAsyncService.getNoteById(999L);
+
+        // Then
+        assertThat(result.join()).isNull();
+        verifyNoInteractions(noteService);
+    }
+
+    @Test
+    void getNoteById_WithNullId_ShouldSkipIdFilter() {
+        // Given
+        when(noteNegativeCache.isMissingAsync("id:null")).thenReturn(CompletableFuture.completedFuture(false));
+
+        // When
+        CompletableFuture<Note> result = noteAsyncService.getNoteById(null);
+        runTasks();
+
+        // Then
+        assertThat(result.join()).isNull();
+        verify(noteIdFilter, never()).mightContainAsync(anyLong());
+        verify(noteService).loadNoteById(null);
+    }
+
+    @Test
+    void getNoteById_WhenRedisFails_ShouldCompleteExceptionally() {
+        // Given
+        when(noteIdFilter.mightContainAsync(1L)).thenReturn(CompletableFuture.failedFuture(new IllegalStateException("redis down")));
+        when(noteNegativeCache.isMissingAsync("id:1")).thenReturn(CompletableFuture.completedFuture(false));
+
+        // When
+        CompletableFuture<Note> result = noteAsyncService.getNoteById(1L);
+
+        // Then
+        assertThatThrownBy(result::join)
+                .isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(IllegalStateException.class);
+        verifyNoInteractions(noteService);
+    }
+
+    @Test
+    void getNoteByTitle_ShouldLoadOnExecutorUnlessMissCached() {
+        // Given
+        when(noteNegativeCache.isMissingAsync("title:Test Note")).thenReturn(CompletableFuture.completedFuture(false));
+        when(noteNegativeCache.isMissingAsync("title:Gone")).thenReturn(CompletableFuture.completedFuture(true));
+        when(noteService.loadNoteByTitle("Test Note")).thenReturn(testNote);
+
+        // When
+        CompletableFuture<Note> found = noteAsyncService.getNoteByTitle("Test Note");
+        CompletableFuture<Note> gone = noteAsyncService.getNoteByTitle("Gone");
+        runTasks();
+
+        // Then
+        assertThat(found.join()).isEqualTo(testNote);
+        assertThat(gone.join()).isNull();
+        verify(noteService, never()).loadNoteByTitle("Gone");
+    }
+
+    @Test
+    void reads_ShouldBeSubmittedTogetherAndRunOnExecutor() {
+        // Given
+        NotePage page = new NotePage(List.of(testNote), null);
+        when(noteService.getNotesByIds(List.of(1L))).thenReturn(List.of(testNote));
+        when(noteService.getAllNonArchivedNotes()).thenReturn(List.of(testNote));
+        when(noteService.getAllNotes()).thenReturn(List.of(testNote));
+        NoteSummary summary = new NoteSummary(1L, "Test Note", false, 27);
+        when(noteService.getAllNonArchivedNoteSummaries()).thenReturn(List.of(summary));
+        when(noteService.getAllNoteSummaries()).thenReturn(List.of(summary));
+        when(noteService.getNonArchivedNotesPage(null, 10)).thenReturn(page);
+        when(noteService.getNotesPage(5L, 10)).thenReturn(page);
+
+        // When
+        CompletableFuture<List<Note>> byIds = noteAsyncService.getNotesByIds(List.of(1L));
+        CompletableFuture<List<Note>> nonArchived = noteAsyncService.getAllNonArchivedNotes();
+        CompletableFuture<List<Note>> all = noteAsyncService.getAllNotes();
+        CompletableFuture<List<NoteSummary>> nonArchivedSummaries = noteAsyncService.getAllNonArchivedNoteSummaries();
+        CompletableFuture<List<NoteSummary>> allSummaries = noteAsyncService.getAllNoteSummaries();
+        CompletableFuture<NotePage> nonArchivedPage = noteAsyncService.getNonArchivedNotesPage(null, 10);
+        CompletableFuture<NotePage> allPage = noteAsyncService.getNotesPage(5L, 10);
+
+        // Then
+        assertThat(tasks).hasSize(7);
+        verifyNoInteractions(noteService);
+
+        runTasks();
+        assertThat(byIds.join()).containsExactly(testNote);
+        assertThat(nonArchived.join()).containsExactly(testNote);
+        assertThat(all.join()).containsExactly(testNote);
+        assertThat(nonArchivedSummaries.join()).containsExactly(summary);
+        assertThat(allSummaries.join()).containsExactly(summary);
+        assertThat(nonArchivedPage.join()).isEqualTo(page);
+        assertThat(allPage.join()).isEqualTo(page);
+    }
+
+    @Test
+    void getNotesByIds_WhenLoadFails_ShouldCompleteExceptionally() {
+        // Given
+        when(noteService.getNotesByIds(any())).thenThrow(new IllegalStateException("database down"));
+
+        // When
+        CompletableFuture<List<Note>> result = noteAsyncService.getNotesByIds(List.of(1L));
+        runTasks();
+
+        // Then
+        assertThatThrownBy(result::join).hasCauseInstanceOf(IllegalStateException.class);
+    }
+}
@@ -1,24 +1,62 @@
 package me.artm2000.hibernatecache.unit.service;
 
+import jakarta.persistence.EntityManager;
+import me.artm2000.hibernatecache.common.cache.EntityCacheBatchLoader;
+import me.artm2000.hibernatecache.common.cache.EntityCacheEvictor;
+import me.artm2000.hibernatecache.common.cache.EntityCacheReader;
+import me.artm2000.hibernatecache.common.cache.IdBloomFilter;
+import me.artm2000.hibernatecache.common.cache.NegativeCache;
+import me.artm2000.hibernatecache.common.cache.RedisCircuitBreaker;
+import me.artm2000.hibernatecache.common.cache.SingleFlight;
 import me.artm2000.hibernatecache.database.entity.Note;
+import me.artm2000.hibernatecache.database.entity.NoteContent;
 import me.artm2000.hibernatecache.database.repository.NoteRepository;
+import me.artm2000.hibernatecache.dto.NotePage;
+import me.artm2000.hibernatecache.dto.NotePatch;
+import me.artm2000.hibernatecache.dto.NoteSummary;
 import me.artm2000.hibernatecache.service.impl.NoteServiceImpl;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-
+import org.mockito.ArgumentCaptor;
+import org.redisson.api.RLock;
+import org.redisson.api.RMap;
+import org.redisson.api.RMapCache;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.RedisConnectionException;
+import org.redisson.client.codec.StringCodec;
+import org.redisson.misc.CompletableFutureWrapper;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -27,6 +65,30 @@ class NoteServiceImplTest {
     @Mock
     private NoteRepository noteRepository;
 
+    @Mock
+    private EntityCacheBatchLoader entityCacheBatchLoader;
+
+    @Mock
+    private EntityCacheEvictor entityCacheEvictor;
+
+    @Mock
+    private EntityCacheReader entityCacheReader;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private IdBloomFilter noteIdFilter;
+
+    @Mock
+    private NegativeCache noteNegativeCache;
+
+    @Mock
+    private SingleFlight singleFlight;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     @InjectMocks
     private NoteServiceImpl noteService;
 
@@ -46,6 +108,24 @@ class NoteServiceImplTest {
         archivedNote.setTitle("Archived Note");
         archivedNote.setContent("This is an archived note content");
         archivedNote.setArchived(true);
+
+        lenient().when(noteIdFilter.mightContain(anyLong())).thenReturn(true);
+        lenient().when(entityCacheBatchLoader.findAllById(eq(NoteContent.class), anyList())).thenReturn(List.of());
+        lenient().when(singleFlight.execute(anyString(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(1).get());
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    private static void commit() {
+        TransactionSynchronizationManager.getSynchronizations().forEach(synchronization -> {
+            synchronization.afterCommit();
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        });
     }
 
     @Test
@@ -69,19 +149,76 @@ class NoteServiceImplTest {
         assertThat(result.getArchived()).isFalse();
         
         verify(noteRepository, times(1)).save(noteToSave);
+        verify(noteIdFilter).add(List.of(1L));
+        verify(noteNegativeCache).invalidate(List.of("id:1", "title:Test Note"));
     }
 
     @Test
-    void createNote_WithNullNote_ShouldCallRepository() {
+    void createNotes_ShouldSaveAllWithoutCachePutsUntilTransactionCompletes() {
         // Given
-        when(noteRepository.save(null)).thenReturn(null);
+        List<Note> notes = List.of(testNote, archivedNote);
+        Session session = mock(Session.class);
+        when(entityManager.unwrap(Session.class)).thenReturn(session);
+        when(session.getCacheMode()).thenReturn(CacheMode.NORMAL);
+        when(noteRepository.saveAll(notes)).thenReturn(notes);
 
         // When
-        Note result = noteService.createNote(null);
+        List<Note> result = noteService.createNotes(notes);
 
         // Then
-        assertThat(result).isNull();
+        assertThat(result).containsExactly(testNote, archivedNote);
+        verify(session).setCacheMode(CacheMode.GET);
+        verify(session, never()).setCacheMode(CacheMode.NORMAL);
+        verify(noteIdFilter, never()).add(any());
+        verify(noteNegativeCache, never()).invalidate(any());
+
+        commit();
+        verify(session).setCacheMode(CacheMode.NORMAL);
+        verify(noteIdFilter).add(List.of(1L, 2L));
+        verify(noteNegativeCache).invalidate(List.of("id:1", "title:Test Note", "id:2", "title:Archived Note"));
+    }
+
+    @Test
+    void createNotes_WhenRedisWriteFailsAfterCommit_ShouldNotFail() {
+        // Given
+        List<Note> notes = List.of(testNote);
+        Session session = mock(Session.class);
+        when(entityManager.unwrap(Session.class)).thenReturn(session);
+        when(noteRepository.saveAll(notes)).thenReturn(notes);
+        doThrow(new IllegalStateException("Redis is down")).when(noteIdFilter).add(any());
+        noteService.createNotes(notes);
+
+        // When / Then
+        commit();
+        verify(noteIdFilter).add(List.of(1L));
+    }
+
+    @Test
+    void createNote_WithNullNote_ShouldCallRepository() {
+        // Given
+        when(noteRepository.save(null)).thenThrow(new IllegalArgumentException("Entity must not be null"));
+
+        // When / Then
+        assertThatThrownBy(() -> noteService.createNote(null)).isInstanceOf(IllegalArgumentException.class);
         verify(noteRepository, times(1)).save(null);
+        verifyNoInteractions(noteIdFilter, noteNegativeCache);
+    }
+
+    @Test
+    void createNote_WhenRedisWriteFails_ShouldStillReturnSavedNote() {
+        // Given
+        Note noteToSave = new Note();
+        when(noteRepository.save(noteToSave)).thenReturn(testNote);
+        doThrow(new IllegalStateException("Redis is down")).when(noteIdFilter).add(any());
+        doThrow(new IllegalStateException("Redis is down")).when(noteNegativeCache).invalidate(any());
+
+        // When
+        Note result = noteService.createNote(noteToSave);
+
+        // Then
+        assertThat(result).isEqualTo(testNote);
+        verify(noteIdFilter).add(List.of(1L));
+        verify(noteNegativeCache).invalidate(List.of("id:1", "title:Test Note"));
     }
 
     @Test
@@ -113,6 +250,113 @@ class NoteServiceImplTest {
         // Then
         assertThat(result).isNull();
         verify(noteRepository, times(1)).findById(999L);
+        verify(noteNegativeCache).putMissing("id:999");
+    }
+
+    @Test
+    void getNoteById_ShouldCoalesceLoadsInReadOnlyTransaction() {
+        // Given
+        when(noteRepository.findById(1L)).thenReturn(Optional.of(testNote));
+
+        // When
+        Note result = noteService.getNoteById(1L);
+
+        // Then
+        assertThat(result).isEqualTo(testNote);
+        verify(singleFlight).execute(eq("notes:id:1"), any());
+        ArgumentCaptor<TransactionDefinition> definition = ArgumentCaptor.forClass(TransactionDefinition.class);
+        verify(transactionManager).getTransaction(definition.capture());
+        assertThat(definition.getValue().isReadOnly()).isTrue();
+    }
+
+    @Test
+    void getNoteById_ShouldDetachCoalescedNote() {
+        // Given
+        when(noteRepository.findById(1L)).thenReturn(Optional.of(testNote));
+
+        // When
+        noteService.getNoteById(1L);
+
+        // Then
+        verify(entityManager).detach(testNote);
+    }
+
+    @Test
+    void getNoteById_WhenRedisIsDown_ShouldReadFromDatabase() throws InterruptedException {
+        // Given
+        RedissonClient redisson = mock();
+        RMap<String, String> generations = mock();
+        RMapCache<String, String> negatives = mock();
+        RLock lock = mock();
+        when(redisson.<String, String>getMap("notes:ids", StringCodec.INSTANCE)).thenReturn(generations);
+        when(redisson.<String, String>getMapCache("negative.notes", StringCodec.INSTANCE)).thenReturn(negatives);
+        when(redisson.getLock("single-flight:notes:id:1")).thenReturn(lock);
+        when(generations.getAsync("current")).thenReturn(new CompletableFutureWrapper<>(new RedisConnectionException("Redis is down")));
+        when(negatives.getAsync("id:1")).thenReturn(new CompletableFutureWrapper<>(new RedisConnectionException("Redis is down")));
+        when(lock.tryLock(anyLong(), anyLong(), any())).thenThrow(new RedisConnectionException("Redis is down"));
+        when(noteRepository.findById(1L)).thenReturn(Optional.of(testNote));
+
+        RedisCircuitBreaker breaker = new RedisCircuitBreaker(50, 5, 1000,
+            () -> CompletableFuture.failedFuture(new RedisConnectionException("Redis is down")));
+        NoteServiceImpl withoutRedis = new NoteServiceImpl(noteRepository, entityCacheBatchLoader, entityCacheEvictor,
+            entityCacheReader, entityManager,
+            new IdBloomFilter(redisson, "notes:ids", 1000, 0.01, Duration.ofSeconds(10), breaker),
+            new NegativeCache(redisson, "negative.notes", Duration.ofSeconds(60), 0, breaker),
+            new SingleFlight(redisson, breaker, true, Duration.ofSeconds(2), Duration.ofSeconds(10)),
+            transactionManager);
+
+        try {
+            // When
+            Note result = withoutRedis.getNoteById(1L);
+
+            // Then
+            assertThat(result).isEqualTo(testNote);
+            verify(noteRepository).findById(1L);
+        } finally {
+            breaker.close();
+        }
+    }
+
+    @Test
+    void getNoteById_WhenCached_ShouldNotCheckIdFilter() {
+        // Given
+        when(entityCacheReader.findCached(Note.class, 1L)).thenReturn(testNote);
+
+        // When
+        Note result = noteService.getNoteById(1L);
+
+        // Then
+        assertThat(result).isEqualTo(testNote);
+        verify(entityManager).detach(testNote);
+        verifyNoInteractions(noteIdFilter);
+        verify(noteRepository, never()).findById(any());
+    }
+
+    @Test
+    void getNoteById_WhenMissCached_ShouldReturnNullWithoutRepository() {
+        // Given
+        when(noteNegativeCache.isMissing("id:999")).thenReturn(true);
+
+        // When
+        Note result = noteService.getNoteById(999L);
+
+        // Then
+        assertThat(result).isNull();
+        verify(noteRepository, never()).findById(any());
+        verify(noteNegativeCache, never()).putMissing(any());
+    }
+
+    @Test
+    void getNoteById_WhenIdFilterHasNoId_ShouldReturnNullWithoutRepository() {
+        // Given
+        when(noteIdFilter.mightContain(999L)).thenReturn(false);
+
+        // When
+        Note result = noteService.getNoteById(999L);
+
+        // Then
+        assertThat(result).isNull();
+        verify(noteRepository, never()).findById(any());
     }
 
     @Test
@@ -128,6 +372,36 @@ class NoteServiceImplTest {
         verify(noteRepository, times(1)).findById(null);
     }
 
+    @Test
+    void loadNoteById_ShouldSkipChecksAndCoalesceWithGetNoteById() {
+        // Given
+        when(noteRepository.findById(1L)).thenReturn(Optional.of(testNote));
+
+        // When
+        Note result = noteService.loadNoteById(1L);
+
+        // Then
+        assertThat(result).isEqualTo(testNote);
+        verify(singleFlight).execute(eq("notes:id:1"), any());
+        verifyNoInteractions(noteIdFilter);
+        verify(noteNegativeCache, never()).isMissing(any());
+    }
+
+    @Test
+    void loadNoteByTitle_WhenNoteDoesNotExist_ShouldCacheMiss() {
+        // Given
+        when(noteRepository.findByTitle("Non-existent Note")).thenReturn(Optional.empty());
+
+        // When
+        Note result = noteService.loadNoteByTitle("Non-existent Note");
+
+        // Then
+        assertThat(result).isNull();
+        verify(singleFlight).execute(eq("notes:title:Non-existent Note"), any());
+        verify(noteNegativeCache, never()).isMissing(any());
+        verify(noteNegativeCache).putMissing("title:Non-existent Note");
+    }
+
     @Test
     void getNoteByTitle_WhenNoteExists_ShouldReturnNote() {
         // Given
@@ -144,6 +418,33 @@ class NoteServiceImplTest {
         verify(noteRepository, times(1)).findByTitle("Test Note");
     }
 
+    @Test
+    void getNoteById_WhenCached_ShouldNotCheckNegativeCache() {
+        // Given
+        when(entityCacheReader.findCached(Note.class, 1L)).thenReturn(testNote);
+
+        // When
+        noteService.getNoteById(1L);
+
+        // Then
+        verifyNoInteractions(noteNegativeCache);
+    }
+
+    @Test
+    void getNoteByTitle_WhenCached_ShouldNotCheckNegativeCache() {
+        // Given
+        when(entityCacheReader.findCachedByNaturalId(Note.class, "Test Note")).thenReturn(testNote);
+
+        // When
+        Note result = noteService.getNoteByTitle("Test Note");
+
+        // Then
+        assertThat(result).isEqualTo(testNote);
+        verify(entityManager).detach(testNote);
+        verifyNoInteractions(noteNegativeCache);
+        verify(noteRepository, never()).findByTitle(any());
+    }
+
     @Test
     void getNoteByTitle_WhenNoteDoesNotExist_ShouldReturnNull() {
         // Given
@@ -155,6 +456,20 @@ class NoteServiceImplTest {
         // Then
         assertThat(result).isNull();
         verify(noteRepository, times(1)).findByTitle("Non-existent Note");
+        verify(noteNegativeCache).putMissing("title:Non-existent Note");
+    }
+
+    @Test
+    void getNoteByTitle_WhenMissCached_ShouldReturnNullWithoutRepository() {
+        // Given
+        when(noteNegativeCache.isMissing("title:Non-existent Note")).thenReturn(true);
+
+        // When
+        Note result = noteService.getNoteByTitle("Non-existent Note");
+
+        // Then
+        assertThat(result).isNull();
+        verify(noteRepository, never()).findByTitle(any());
     }
 
     @Test
@@ -187,7 +502,8 @@ class NoteServiceImplTest {
     void getAllNonArchivedNotes_WhenNotesExist_ShouldReturnOnlyNonArchivedNotes() {
         // Given
         List<Note> nonArchivedNotes = Arrays.asList(testNote);
-        when(noteRepository.findAllByArchived(false)).thenReturn(nonArchivedNotes);
+        when(noteRepository.findAllIdsByArchived(false)).thenReturn(List.of(1L));
+        when(entityCacheBatchLoader.findAllById(Note.class, List.of(1L))).thenReturn(nonArchivedNotes);
 
         // When
         List<Note> result = noteService.getAllNonArchivedNotes();
@@ -197,53 +513,206 @@ class NoteServiceImplTest {
         assertThat(result.get(0).getArchived()).isFalse();
         assertThat(result.get(0).getTitle()).isEqualTo("Test Note");
         
-        verify(noteRepository, times(1)).findAllByArchived(false);
+        verify(noteRepository, times(1)).findAllIdsByArchived(false);
+        verify(entityCacheBatchLoader, times(1)).findAllById(Note.class, List.of(1L));
+        verify(singleFlight).execute(eq("notes:all:archived=false"), any());
+    }
+
+    @Test
+    void getAllNonArchivedNotes_ShouldDetachCoalescedNotes() {
+        // Given
+        when(noteRepository.findAllIdsByArchived(false)).thenReturn(List.of(1L, 2L));
+        when(entityCacheBatchLoader.findAllById(Note.class, List.of(1L, 2L))).thenReturn(List.of(testNote, archivedNote));
+
+        // When
+        noteService.getAllNonArchivedNotes();
+
+        // Then
+        verify(entityManager).detach(testNote);
+        verify(entityManager).detach(archivedNote);
     }
 
     @Test
     void getAllNonArchivedNotes_WhenNoNotesExist_ShouldReturnEmptyList() {
         // Given
-        when(noteRepository.findAllByArchived(false)).thenReturn(Collections.emptyList());
+        when(noteRepository.findAllIdsByArchived(false)).thenReturn(Collections.emptyList());
+        when(entityCacheBatchLoader.findAllById(Note.class, Collections.emptyList())).thenReturn(Collections.emptyList());
 
         // When
         List<Note> result = noteService.getAllNonArchivedNotes();
 
         // Then
         assertThat(result).isEmpty();
-        verify(noteRepository, times(1)).findAllByArchived(false);
+        verify(noteRepository, times(1)).findAllIdsByArchived(false);
+    }
+
+    @Test
+    void getNotesByIds_ShouldResolveAllIdsInOneBatchInRequestOrder() {
+        // Given
+        when(entityCacheBatchLoader.findAllById(Note.class, List.of(2L, 1L))).thenReturn(List.of(archivedNote, testNote));
+
+        // When
+        List<Note> result = noteService.getNotesByIds(List.of(2L, 1L));
+
+        // Then
+        assertThat(result).containsExactly(archivedNote, testNote);
+        verify(entityCacheBatchLoader, times(1)).findAllById(Note.class, List.of(2L, 1L));
+        verify(noteRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void getNotesByIds_ShouldLoadContentsBeforeNotes() {
+        // When
+        noteService.getNotesByIds(List.of(2L, 1L));
+
+        // Then
+        var inOrder = inOrder(entityCacheBatchLoader);
+        inOrder.verify(entityCacheBatchLoader).findAllById(NoteContent.class, List.of(2L, 1L));
+        inOrder.verify(entityCacheBatchLoader).findAllById(Note.class, List.of(2L, 1L));
     }
 
     @Test
     void getAllNotes_WhenNotesExist_ShouldReturnAllNotes() {
         // Given
         List<Note> allNotes = Arrays.asList(testNote, archivedNote);
-        when(noteRepository.findAll()).thenReturn(allNotes);
+        when(noteRepository.findAllIds()).thenReturn(List.of(1L, 2L));
+        when(entityCacheBatchLoader.findAllById(Note.class, List.of(1L, 2L))).thenReturn(allNotes);
 
         // When
         List<Note> result = noteService.getAllNotes();
 
         // Then
         assertThat(result).hasSize(2);
-        assertThat(result).contains(testNote, archivedNote);
+        assertThat(result).containsExactly(testNote, archivedNote);
         
-        verify(noteRepository, times(1)).findAll();
+        verify(noteRepository, times(1)).findAllIds();
+        verify(entityCacheBatchLoader, times(1)).findAllById(Note.class, List.of(1L, 2L));
     }
 
     @Test
     void getAllNotes_WhenNoNotesExist_ShouldReturnEmptyList() {
         // Given
-        when(noteRepository.findAll()).thenReturn(Collections.emptyList());
+        when(noteRepository.findAllIds()).thenReturn(Collections.emptyList());
+        when(entityCacheBatchLoader.findAllById(Note.class, Collections.emptyList())).thenReturn(Collections.emptyList());
 
         // When
         List<Note> result = noteService.getAllNotes();
 
         // Then
         assertThat(result).isEmpty();
-        verify(noteRepository, times(1)).findAll();
+        verify(noteRepository, times(1)).findAllIds();
     }
 
     @Test
-    void updateNoteById_WhenNoteExists_ShouldUpdateNote() {
+    void getAllNonArchivedNoteSummaries_ShouldCoalesceWithoutEntityRegion() {
+        // Given
+        List<NoteSummary> summaries = List.of(new NoteSummary(1L, "Test Note", false, 27));
+        when(noteRepository.findAllSummariesByArchived(false)).thenReturn(summaries);
+
+        // When
+        List<NoteSummary> result = noteService.getAllNonArchivedNoteSummaries();
+
+        // Then
+        assertThat(result).isEqualTo(summaries);
+        verify(singleFlight).execute(eq("notes:summaries:archived=false"), any());
+        verifyNoInteractions(entityCacheBatchLoader);
+    }
+
+    @Test
+    void getAllNoteSummaries_ShouldCoalesceWithoutEntityRegion() {
+        // Given
+        List<NoteSummary> summaries = List.of(
+                new NoteSummary(1L, "Test Note", false, 27),
+                new NoteSummary(2L, "Archived Note", true, 32));
+        when(noteRepository.findAllSummaries()).thenReturn(summaries);
+
+        // When
+        List<NoteSummary> result = noteService.getAllNoteSummaries();
+
+        // Then
+        assertThat(result).isEqualTo(summaries);
+        verify(singleFlight).execute(eq("notes:summaries"), any());
+        verifyNoInteractions(entityCacheBatchLoader);
+    }
+
+    @Test
+    void exportNotes_ShouldStreamIdsThroughBatchLoaderAndCloseStream() {
+        // Given
+        AtomicBoolean closed = new AtomicBoolean();
+        Stream<Long> ids = Stream.of(1L, 2L).onClose(() -> closed.set(true));
+        Consumer<Note> consumer = note -> { };
+        when(noteRepository.streamAllIds()).thenReturn(ids);
+
+        // When
+        noteService.exportNotes(consumer);
+
+        // Then
+        verify(entityCacheBatchLoader, times(1)).forEachById(Note.class, ids, consumer, NoteContent.class);
+        assertThat(closed).isTrue();
+    }
+
+    @Test
+    void getNotesPage_WhenPageIsFull_ShouldReturnNextAfterId() {
+        // Given
+        when(noteRepository.findIdsAfter(0L, Limit.of(2))).thenReturn(List.of(1L, 2L));
+        when(entityCacheBatchLoader.findAllById(Note.class, List.of(1L, 2L))).thenReturn(List.of(testNote, archivedNote));
+
+        // When
+        NotePage result = noteService.getNotesPage(null, 2);
+
+        // Then
+        assertThat(result.notes()).containsExactly(testNote, archivedNote);
+        assertThat(result.nextAfterId()).isEqualTo(2L);
+        verify(singleFlight).execute(eq("notes:page:0:2"), any());
+    }
+
+    @Test
+    void getNotesPage_WhenLastPage_ShouldReturnNoNextAfterId() {
+        // Given
+        when(noteRepository.findIdsAfter(1L, Limit.of(10))).thenReturn(List.of(2L));
+        when(entityCacheBatchLoader.findAllById(Note.class, List.of(2L))).thenReturn(List.of(archivedNote));
+
+        // When
+        NotePage result = noteService.getNotesPage(1L, 10);
+
+        // Then
+        assertThat(result.notes()).containsExactly(archivedNote);
+        assertThat(result.nextAfterId()).isNull();
+    }
+
+    @Test
+    void getNotesPage_WithOutOfRangeLimit_ShouldClampPageSize() {
+        // Given
+        when(noteRepository.findIdsAfter(anyLong(), any(Limit.class))).thenReturn(Collections.emptyList());
+        when(entityCacheBatchLoader.findAllById(Note.class, Collections.emptyList())).thenReturn(Collections.emptyList());
+
+        // When
+        noteService.getNotesPage(null, 100_000);
+        noteService.getNotesPage(null, 0);
+
+        // Then
+        verify(noteRepository, times(1)).findIdsAfter(0L, Limit.of(NoteServiceImpl.MAX_PAGE_SIZE));
+        verify(noteRepository, times(1)).findIdsAfter(0L, Limit.of(1));
+    }
+
+    @Test
+    void getNonArchivedNotesPage_ShouldQueryNonArchivedIdsAfterGivenId() {
+        // Given
+        when(noteRepository.findIdsByArchivedAfter(false, 5L, Limit.of(1))).thenReturn(List.of(6L));
+        when(entityCacheBatchLoader.findAllById(Note.class, List.of(6L))).thenReturn(List.of(testNote));
+
+        // When
+        NotePage result = noteService.getNonArchivedNotesPage(5L, 1);
+
+        // Then
+        assertThat(result.notes()).containsExactly(testNote);
+        assertThat(result.nextAfterId()).isEqualTo(6L);
+        verify(noteRepository, times(1)).findIdsByArchivedAfter(false, 5L, Limit.of(1));
+        verify(singleFlight).execute(eq("notes:page:archived=false:5:1"), any());
+    }
+
+    @Test
+    void updateNoteById_WhenNoteExists_ShouldUpdateManagedNoteWithoutSave() {
         // Given
         Note updatedNote = new Note();
         updatedNote.setTitle("Updated Title");
@@ -251,7 +720,6 @@ class NoteServiceImplTest {
         updatedNote.setArchived(true);
 
         when(noteRepository.findById(1L)).thenReturn(Optional.of(testNote));
-        when(noteRepository.save(testNote)).thenReturn(testNote);
 
         // When
         noteService.updateNoteById(1L, updatedNote);
@@ -262,7 +730,11 @@ class NoteServiceImplTest {
         assertThat(testNote.getArchived()).isTrue();
         
         verify(noteRepository, times(1)).findById(1L);
-        verify(noteRepository, times(1)).save(testNote);
+        verify(noteRepository, never()).save(any(Note.class));
+
+        verify(noteNegativeCache, never()).invalidate(any());
+        commit();
+        verify(noteNegativeCache).invalidate(List.of("title:Updated Title"));
     }
 
     @Test
@@ -302,62 +774,104 @@ class NoteServiceImplTest {
         // content and archived are null
 
         when(noteRepository.findById(1L)).thenReturn(Optional.of(testNote));
-        when(noteRepository.save(testNote)).thenReturn(testNote);
 
         // When
         noteService.updateNoteById(1L, partialUpdate);
 
         // Then
         assertThat(testNote.getTitle()).isEqualTo("Only Title Updated");
-        // Note: The implementation will set content and archived to null based on the current code
         verify(noteRepository, times(1)).findById(1L);
-        verify(noteRepository, times(1)).save(testNote);
+        verify(noteRepository, never()).save(any(Note.class));
     }
 
     @Test
-    void archiveNoteById_WhenNoteExists_ShouldArchiveNote() {
+    void patchNoteById_ShouldChangeOnlyGivenFields() {
         // Given
         when(noteRepository.findById(1L)).thenReturn(Optional.of(testNote));
-        when(noteRepository.save(testNote)).thenReturn(testNote);
 
         // When
-        noteService.archiveNoteById(1L);
+        noteService.patchNoteById(1L, new NotePatch("Patched Title", null, null));
 
         // Then
-        assertThat(testNote.getArchived()).isTrue();
-        
-        verify(noteRepository, times(1)).findById(1L);
-        verify(noteRepository, times(1)).save(testNote);
+        assertThat(testNote.getTitle()).isEqualTo("Patched Title");
+        assertThat(testNote.getContent()).isEqualTo("This is a test note content");
+        assertThat(testNote.getArchived()).isFalse();
+        verify(noteRepository, never()).save(any(Note.class));
+        commit();
+        verify(noteNegativeCache).invalidate(List.of("title:Patched Title"));
     }
 
     @Test
-    void archiveNoteById_WhenNoteDoesNotExist_ShouldNotCallSave() {
+    void patchNoteById_WithSameTitle_ShouldKeepNegativeCache() {
+        // Given
+        when(noteRepository.findById(1L)).thenReturn(Optional.of(testNote));
+
+        // When
+        noteService.patchNoteById(1L, new NotePatch("Test Note", "Patched", null));
+
+        // Then
+        commit();
+        verify(noteNegativeCache, never()).invalidate(any());
+    }
+
+    @Test
+    void patchNoteById_WhenNoteDoesNotExist_ShouldDoNothing() {
         // Given
         when(noteRepository.findById(999L)).thenReturn(Optional.empty());
 
         // When
-        noteService.archiveNoteById(999L);
+        noteService.patchNoteById(999L, new NotePatch("Patched Title", "Patched", true));
 
         // Then
         verify(noteRepository, times(1)).findById(999L);
+        verifyNoMoreInteractions(noteRepository);
+    }
+
+    @Test
+    void archiveNoteById_ShouldRunOneUpdateWithoutLoadingNote() {
+        // Given
+        when(noteRepository.archiveAllById(List.of(1L))).thenReturn(1);
+
+        // When
+        noteService.archiveNoteById(1L);
+
+        // Then
+        verify(noteRepository, times(1)).archiveAllById(List.of(1L));
+        verify(noteRepository, never()).findById(anyLong());
         verify(noteRepository, never()).save(any(Note.class));
     }
 
     @Test
-    void archiveNoteById_WhenNoteAlreadyArchived_ShouldStillSetToTrue() {
+    void archiveNoteById_ShouldEvictOnlyThatNoteBeforeUpdating() {
+        // When
+        noteService.archiveNoteById(1L);
+
+        // Then
+        var inOrder = inOrder(entityCacheEvictor, noteRepository);
+        inOrder.verify(entityCacheEvictor).evictOnCompletion(Note.class, List.of(1L));
+        inOrder.verify(noteRepository).archiveAllById(List.of(1L));
+    }
+
+    @Test
+    void archiveNotesByIds_ShouldArchiveAllIdsWithOneUpdate() {
         // Given
-        archivedNote.setArchived(true); // Already archived
-        when(noteRepository.findById(2L)).thenReturn(Optional.of(archivedNote));
-        when(noteRepository.save(archivedNote)).thenReturn(archivedNote);
+        when(noteRepository.archiveAllById(List.of(1L, 2L, 999L))).thenReturn(2);
 
         // When
-        noteService.archiveNoteById(2L);
+        noteService.archiveNotesByIds(List.of(1L, 2L, 999L));
 
         // Then
-        assertThat(archivedNote.getArchived()).isTrue();
-        
-        verify(noteRepository, times(1)).findById(2L);
-        verify(noteRepository, times(1)).save(archivedNote);
+        verify(noteRepository, times(1)).archiveAllById(List.of(1L, 2L, 999L));
+        verify(entityCacheEvictor, times(1)).evictOnCompletion(Note.class, List.of(1L, 2L, 999L));
+    }
+
+    @Test
+    void archiveNotesByIds_WithNoIds_ShouldDoNothing() {
+        // When
+        noteService.archiveNotesByIds(List.of());
+
+        // Then
+        verifyNoInteractions(noteRepository, entityCacheEvictor);
     }
 
     @Test
@@ -367,6 +881,7 @@ class NoteServiceImplTest {
 
         // Then
         verify(noteRepository, times(1)).deleteById(1L);
+        verify(noteNegativeCache).putDeleted("id:1");
     }
 
     @Test